@@ -0,0 +1,9 @@
+package com.pm.billingservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BillingStoreProperties.class)
+public class BillingStoreConfig {
+}
@@ -0,0 +1,45 @@
+package com.pm.billingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Group commit settings for {@code BillingAccountWriter}.
+ */
+@ConfigurationProperties(prefix = "billing.store")
+public class BillingStoreProperties {
+
+    /** Most inserts committed in one transaction. */
+    private int batchSize = 256;
+
+    /** How long the writer waits for a batch to fill once the first insert arrives. */
+    private Duration linger = Duration.ofMillis(2);
+
+    /** Pending inserts beyond this are rejected instead of queued. */
+    private int queueCapacity = 10_000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getLinger() {
+        return linger;
+    }
+
+    public void setLinger(Duration linger) {
+        this.linger = linger;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pm.billingservice.config;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Turns calls away with {@code RESOURCE_EXHAUSTED} once the gRPC call pool is saturated,
+ * instead of queueing them without bound or running them on the Netty event loop.
+ *
+ * <p>The decision is made when gRPC asks for the call's executor, which happens on the
+ * event loop before any application code runs. A rejected call keeps the server's direct
+ * executor and is marked in its headers; the interceptor half then closes it right there,
+ * which costs only the trailers write.
+ */
+public class GrpcLoadShedder implements ServerCallExecutorSupplier, ServerInterceptor {
+
+    private static final Metadata.Key<String> SHED = Metadata.Key.of("x-billing-load-shed",
+            Metadata.ASCII_STRING_MARSHALLER);
+
+    private final GrpcServerExecutor grpcServerExecutor;
+
+    GrpcLoadShedder(GrpcServerExecutor grpcServerExecutor) {
+        this.grpcServerExecutor = grpcServerExecutor;
+    }
+
+    @Override
+    public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata headers) {
+        // the marker is ours only, never trust one sent by a client
+        headers.discardAll(SHED);
+        if (grpcServerExecutor.isSaturated()) {
+            headers.put(SHED, "1");
+            return null;
+        }
+        return grpcServerExecutor.getExecutor();
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (headers.containsKey(SHED)) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Billing gRPC server is overloaded"),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+}
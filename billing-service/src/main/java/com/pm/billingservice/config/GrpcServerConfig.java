@@ -0,0 +1,53 @@
+package com.pm.billingservice.config;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Production tuning for the gRPC server: application executor, native transport,
+ * HTTP/2 flow control and per-connection stream limits.
+ */
+@Configuration
+@EnableConfigurationProperties(GrpcServerTuningProperties.class)
+public class GrpcServerConfig {
+
+    @Bean
+    public GrpcServerExecutor grpcServerExecutor(GrpcServerTuningProperties properties) {
+        return new GrpcServerExecutor(properties);
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    GrpcLoadShedder grpcLoadShedder(GrpcServerExecutor grpcServerExecutor) {
+        return new GrpcLoadShedder(grpcServerExecutor);
+    }
+
+    @Bean
+    NettyNativeTransport nettyNativeTransport(GrpcServerTuningProperties properties) {
+        return new NettyNativeTransport(properties);
+    }
+
+    @Bean
+    public GrpcServerConfigurer grpcServerConfigurer(GrpcServerTuningProperties properties,
+                                                     GrpcLoadShedder grpcLoadShedder,
+                                                     NettyNativeTransport nettyNativeTransport) {
+        return serverBuilder -> {
+            // method lookup runs on the event loop, then each call moves to the executor the
+            // load shedder picks for it
+            serverBuilder.directExecutor();
+            serverBuilder.callExecutor(grpcLoadShedder);
+            if (serverBuilder instanceof NettyServerBuilder nettyBuilder) {
+                nettyNativeTransport.apply(nettyBuilder);
+                nettyBuilder.flowControlWindow((int) properties.getFlowControlWindow().toBytes())
+                        .maxConcurrentCallsPerConnection(properties.getMaxConcurrentCallsPerConnection());
+            }
+        };
+    }
+}
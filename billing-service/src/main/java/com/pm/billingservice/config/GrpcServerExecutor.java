@@ -0,0 +1,79 @@
+package com.pm.billingservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the executors gRPC calls and their responses run on. Deliberately not an
+ * {@link Executor} bean itself, so Boot still creates its application-wide
+ * {@code applicationTaskExecutor}.
+ *
+ * <p>The {@code BOUNDED} call pool never runs work on the submitting thread, which for gRPC
+ * is a Netty event loop serving many connections. Calls are admitted by
+ * {@link GrpcLoadShedder} only while fewer than {@code queueCapacity} tasks are waiting;
+ * the queue itself holds twice that, so callbacks of calls already admitted still fit, and
+ * anything beyond it is rejected rather than run inline.
+ *
+ * <p>Responses complete on a separate executor so a saturated call pool cannot push them
+ * back onto the thread that completed the work (the billing account group commit).
+ */
+public class GrpcServerExecutor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerExecutor.class);
+
+    private final ExecutorService executor;
+    private final ExecutorService responseExecutor;
+    private final ThreadPoolExecutor boundedPool;
+    private final int queueCapacity;
+
+    GrpcServerExecutor(GrpcServerTuningProperties properties) {
+        this.queueCapacity = properties.getQueueCapacity();
+        if (properties.getExecutor() == GrpcServerTuningProperties.ExecutorType.BOUNDED) {
+            log.info("gRPC server executor: bounded pool of {} threads, {} queued calls", properties.getThreads(),
+                    properties.getQueueCapacity());
+            this.boundedPool = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity * 2),
+                    Thread.ofPlatform().name("grpc-app-", 0).daemon(true).factory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.executor = boundedPool;
+            // one pending response per queued account write, so billing.store.queue-capacity
+            // already bounds this queue
+            this.responseExecutor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                    0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofPlatform().name("grpc-response-", 0).daemon(true).factory());
+        } else {
+            log.info("gRPC server executor: virtual thread per call");
+            this.boundedPool = null;
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+            this.responseExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("grpc-response-vt-", 0).factory());
+        }
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public Executor getResponseExecutor() {
+        return responseExecutor;
+    }
+
+    /** True when a new call should be turned away instead of queued. */
+    boolean isSaturated() {
+        return boundedPool != null && boundedPool.getQueue().size() >= queueCapacity;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        responseExecutor.shutdown();
+    }
+}
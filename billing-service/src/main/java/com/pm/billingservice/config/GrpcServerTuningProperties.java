@@ -0,0 +1,99 @@
+package com.pm.billingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Netty/executor level tuning for the billing gRPC server. Port, keepalive and
+ * message size limits live under the starter's own {@code grpc.server.*} keys;
+ * everything the starter does not expose is configured here.
+ */
+@ConfigurationProperties(prefix = "billing.grpc.server")
+public class GrpcServerTuningProperties {
+
+    public enum ExecutorType {
+        /** One virtual thread per call, no pool to size. */
+        VIRTUAL,
+        /** Fixed pool of platform threads, sized by {@link #threads}, with a bounded queue. */
+        BOUNDED
+    }
+
+    private ExecutorType executor = ExecutorType.VIRTUAL;
+
+    /** Pool size when {@link #executor} is {@code BOUNDED}. */
+    private int threads = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Calls queued for the {@code BOUNDED} pool. Beyond this new calls fail fast with
+     * {@code RESOURCE_EXHAUSTED}.
+     */
+    private int queueCapacity = 1_000;
+
+    /** Use the native epoll transport when it is available on this host. */
+    private boolean nativeTransport = true;
+
+    /** Netty worker event loop threads, 0 lets Netty pick (2 * cores). */
+    private int workerThreads = 0;
+
+    /** HTTP/2 per-stream flow control window. */
+    private DataSize flowControlWindow = DataSize.ofMegabytes(1);
+
+    /** HTTP/2 MAX_CONCURRENT_STREAMS advertised to each client connection. */
+    private int maxConcurrentCallsPerConnection = 1000;
+
+    public ExecutorType getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ExecutorType executor) {
+        this.executor = executor;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public DataSize getFlowControlWindow() {
+        return flowControlWindow;
+    }
+
+    public void setFlowControlWindow(DataSize flowControlWindow) {
+        this.flowControlWindow = flowControlWindow;
+    }
+
+    public int getMaxConcurrentCallsPerConnection() {
+        return maxConcurrentCallsPerConnection;
+    }
+
+    public void setMaxConcurrentCallsPerConnection(int maxConcurrentCallsPerConnection) {
+        this.maxConcurrentCallsPerConnection = maxConcurrentCallsPerConnection;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pm.billingservice.config;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Owns the epoll boss/worker event loops handed to the Netty server. gRPC does not
+ * shut down event loop groups it did not create, so they are released here once the
+ * server lifecycle has stopped.
+ */
+class NettyNativeTransport implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(NettyNativeTransport.class);
+
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+
+    NettyNativeTransport(GrpcServerTuningProperties properties) {
+        if (properties.isNativeTransport() && Epoll.isAvailable()) {
+            this.bossGroup = new EpollEventLoopGroup(1, new DefaultThreadFactory("grpc-boss", true));
+            this.workerGroup = new EpollEventLoopGroup(properties.getWorkerThreads(),
+                    new DefaultThreadFactory("grpc-worker", true));
+            log.info("gRPC server using native epoll transport");
+        } else {
+            this.bossGroup = null;
+            this.workerGroup = null;
+            if (properties.isNativeTransport()) {
+                log.info("Native epoll transport unavailable, falling back to NIO: {}",
+                        Epoll.unavailabilityCause().toString());
+            }
+        }
+    }
+
+    boolean isEnabled() {
+        return workerGroup != null;
+    }
+
+    void apply(NettyServerBuilder builder) {
+        if (!isEnabled()) {
+            return;
+        }
+        builder.bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .channelType(EpollServerSocketChannel.class);
+    }
+
+    @Override
+    public void destroy() {
+        if (isEnabled()) {
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully();
+        }
+    }
+}
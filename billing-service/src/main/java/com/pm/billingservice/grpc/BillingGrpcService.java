@@ -1,15 +1,76 @@
 package com.pm.billingservice.grpc;
 
 import billing.BillingRequest;
+import billing.BillingResponse;
 import billing.BillingServiceGrpc;
+import com.pm.billingservice.config.GrpcServerExecutor;
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.service.BillingAccountService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 @GrpcService
-public class BillingGrpcService  extends BillingServiceGrpc.BillingServiceImplBase {
+public class BillingGrpcService extends BillingServiceGrpc.BillingServiceImplBase {
+    private static final Logger log = LoggerFactory.getLogger(BillingGrpcService.class);
 
-@Override
-    public void createBillingAccount(BillingRequest billingRequest){
-    Strea
-}
+    private final BillingAccountService billingAccountService;
+    private final Executor responseExecutor;
+
+    public BillingGrpcService(BillingAccountService billingAccountService, GrpcServerExecutor grpcServerExecutor) {
+        this.billingAccountService = billingAccountService;
+        this.responseExecutor = grpcServerExecutor.getResponseExecutor();
+    }
+
+    @Override
+    public void createBillingAccount(BillingRequest billingRequest,
+                                     StreamObserver<BillingResponse> responseObserver) {
+        log.debug("createBillingAccount request received for patientId: {}", billingRequest.getPatientId());
+        if (billingRequest.getPatientId().isBlank()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("patientId is required").asRuntimeException());
+            return;
+        }
+
+        // the call handler does not block. the account is committed on the group commit thread,
+        // the response is serialized and written back on the response executor so that thread
+        // goes straight back to the next batch
+        billingAccountService.createAccount(billingRequest.getPatientId(), billingRequest.getName(),
+                billingRequest.getEmail()).whenComplete((account, error) -> {
+            try {
+                responseExecutor.execute(() -> respond(responseObserver, account, error));
+            } catch (RejectedExecutionException e) {
+                // shutting down: answer here rather than leave the call hanging
+                respond(responseObserver, account, error);
+            }
+        });
+    }
 
+    private static void respond(StreamObserver<BillingResponse> responseObserver, BillingAccount account,
+                                Throwable error) {
+        if (error != null) {
+            responseObserver.onError(toStatus(error).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(BillingResponse.newBuilder()
+                .setAccountId(account.getAccountId().toString())
+                .setStatus(account.getStatus())
+                .build());
+        responseObserver.onCompleted();
+    }
 
+    private static Status toStatus(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage());
+        }
+        log.error("Failed to create billing account", cause);
+        return Status.INTERNAL.withDescription("Failed to create billing account");
+    }
 }
@@ -0,0 +1,54 @@
+package com.pm.billingservice.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A billing account, one per patient. Instances are shared through the in-memory
+ * index so they are immutable once created.
+ */
+public class BillingAccount {
+
+    public static final String STATUS_ACTIVE = "ACTIVE";
+
+    private final UUID accountId;
+    private final String patientId;
+    private final String name;
+    private final String email;
+    private final String status;
+    private final Instant createdAt;
+
+    public BillingAccount(UUID accountId, String patientId, String name, String email,
+                          String status, Instant createdAt) {
+        this.accountId = accountId;
+        this.patientId = patientId;
+        this.name = name;
+        this.email = email;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,74 @@
+package com.pm.billingservice.repository;
+
+import com.pm.billingservice.model.BillingAccount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+public class BillingAccountRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO billing_account (account_id, patient_id, name, email, status, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT account_id, patient_id, name, email, status, created_at FROM billing_account";
+
+    private static final RowMapper<BillingAccount> ROW_MAPPER = (rs, rowNum) -> new BillingAccount(
+            rs.getObject("account_id", UUID.class),
+            rs.getString("patient_id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("status"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BillingAccountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<BillingAccount> findByPatientId(String patientId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE patient_id = ?", ROW_MAPPER, patientId)
+                .stream().findFirst();
+    }
+
+    /** Streams every account, used to warm the in-memory patientId index at startup. */
+    public void forEach(Consumer<BillingAccount> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(SELECT_COLUMNS, handler);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_account", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public void insert(BillingAccount account) {
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, account));
+    }
+
+    /** JDBC batch insert, callers wrap this in a transaction to commit the group at once. */
+    public void insertAll(List<BillingAccount> accounts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, accounts, accounts.size(), this::bind);
+    }
+
+    private void bind(PreparedStatement ps, BillingAccount account) throws SQLException {
+        ps.setObject(1, account.getAccountId());
+        ps.setString(2, account.getPatientId());
+        ps.setString(3, account.getName());
+        ps.setString(4, account.getEmail());
+        ps.setString(5, account.getStatus());
+        ps.setTimestamp(6, Timestamp.from(account.getCreatedAt()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Idempotent billing account creation keyed by {@code patientId}. Retries from
+ * patient-service get the account created by the first call: committed accounts are
+ * answered from an in-memory index, and a create that is still waiting on the group
+ * commit is shared by every concurrent caller for the same patient.
+ */
+@Service
+public class BillingAccountService {
+    private static final Logger log = LoggerFactory.getLogger(BillingAccountService.class);
+
+    private final BillingAccountRepository repository;
+    private final BillingAccountWriter writer;
+    private final ConcurrentMap<String, BillingAccount> accountsByPatientId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<BillingAccount>> inFlight = new ConcurrentHashMap<>();
+
+    public BillingAccountService(BillingAccountRepository repository, BillingAccountWriter writer) {
+        this.repository = repository;
+        this.writer = writer;
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        repository.forEach(account -> accountsByPatientId.put(account.getPatientId(), account));
+        log.info("Loaded {} billing accounts into patientId index", accountsByPatientId.size());
+    }
+
+    public CompletableFuture<BillingAccount> createAccount(String patientId, String name, String email) {
+        BillingAccount existing = accountsByPatientId.get(patientId);
+        if (existing != null) {
+            log.debug("Billing account already exists for patientId: {}", patientId);
+            return CompletableFuture.completedFuture(existing);
+        }
+
+        CompletableFuture<BillingAccount> future = inFlight.computeIfAbsent(patientId, id -> {
+            // the index is updated before the in-flight entry is removed, so checking it
+            // again here under the map's lock closes the race with a commit that just finished
+            BillingAccount committed = accountsByPatientId.get(id);
+            if (committed != null) {
+                return CompletableFuture.completedFuture(committed);
+            }
+            BillingAccount account = new BillingAccount(UUID.randomUUID(), id, name, email,
+                    BillingAccount.STATUS_ACTIVE, Instant.now());
+            return writer.submit(account).thenApply(stored -> {
+                accountsByPatientId.put(stored.getPatientId(), stored);
+                return stored;
+            });
+        });
+        future.whenComplete((account, error) -> inFlight.remove(patientId, future));
+        return future;
+    }
+
+    public Optional<BillingAccount> getAccount(String patientId) {
+        return Optional.ofNullable(accountsByPatientId.get(patientId));
+    }
+}
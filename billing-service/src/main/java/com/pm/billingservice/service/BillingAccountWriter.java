@@ -0,0 +1,192 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.config.BillingStoreProperties;
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Group commit for billing account inserts. Callers enqueue an account and get a future;
+ * a single writer thread drains whatever is queued (waiting up to {@code linger} for the
+ * batch to fill) and commits it as one JDBC batch in one transaction, so N concurrent
+ * creates cost one commit instead of N.
+ */
+@Component
+public class BillingAccountWriter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(BillingAccountWriter.class);
+
+    private record Pending(BillingAccount account, CompletableFuture<BillingAccount> future) {
+    }
+
+    private final BillingAccountRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending> queue;
+
+    // submit holds the read lock across its running check and offer, stop takes the write
+    // lock to flip running, so nothing can be queued after the drain loop decided to exit
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread thread;
+
+    public BillingAccountWriter(BillingAccountRepository repository, TransactionTemplate transactionTemplate,
+                                BillingStoreProperties properties) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.getBatchSize();
+        this.lingerNanos = properties.getLinger().toNanos();
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Queues the account for the next group commit. The future completes with the stored
+     * account, which is the existing row if another writer already inserted this patientId.
+     * It completes on the writer thread, so callers should move any real work off it with
+     * the {@code *Async} stages.
+     */
+    public CompletableFuture<BillingAccount> submit(BillingAccount account) {
+        CompletableFuture<BillingAccount> future = new CompletableFuture<>();
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                future.completeExceptionally(stopped());
+            } else if (!queue.offer(new Pending(account, future))) {
+                future.completeExceptionally(new RejectedExecutionException("Billing account write queue is full"));
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        return future;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("billing-account-writer").daemon(true).start(this::drainLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Starts before and stops after the gRPC server so in-flight calls can still commit. */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future().completeExceptionally(stopped()));
+                break;
+            } catch (RuntimeException e) {
+                log.error("Billing account writer failed on a batch of {}", batch.size(), e);
+                batch.forEach(pending -> pending.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        // only non-empty when interrupted, submit cannot queue anything once running is false
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future().completeExceptionally(stopped());
+        }
+    }
+
+    private static RejectedExecutionException stopped() {
+        return new RejectedExecutionException("Billing account writer is stopped");
+    }
+
+    private void fill(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<BillingAccount> accounts = batch.stream().map(Pending::account).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.insertAll(accounts));
+            batch.forEach(pending -> pending.future().complete(pending.account()));
+        } catch (DuplicateKeyException e) {
+            // another instance stored one of these patients first; fall back to row by row
+            log.info("Duplicate patientId in batch of {}, retrying individually", batch.size());
+            batch.forEach(this::commitOne);
+        }
+    }
+
+    private void commitOne(Pending pending) {
+        BillingAccount account = pending.account();
+        try {
+            repository.insert(account);
+            pending.future().complete(account);
+        } catch (DuplicateKeyException e) {
+            try {
+                repository.findByPatientId(account.getPatientId()).ifPresentOrElse(
+                        pending.future()::complete,
+                        () -> pending.future().completeExceptionally(e));
+            } catch (RuntimeException lookupFailure) {
+                // fail this row only, the rest of the batch still gets its own attempt
+                lookupFailure.addSuppressed(e);
+                pending.future().completeExceptionally(lookupFailure);
+            }
+        } catch (DataAccessException e) {
+            pending.future().completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- patient_id is the idempotency key for CreateBillingAccount
+CREATE TABLE IF NOT EXISTS billing_account
+(
+    account_id UUID PRIMARY KEY,
+    patient_id VARCHAR(64) UNIQUE NOT NULL,
+    name       VARCHAR(255)       NOT NULL,
+    email      VARCHAR(255)       NOT NULL,
+    status     VARCHAR(32)        NOT NULL,
+    created_at TIMESTAMP          NOT NULL
+);
@@ -0,0 +1,68 @@
+package com.pm.billingservice;
+
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import com.pm.billingservice.service.BillingAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"grpc.server.port=0", "server.port=0"})
+class BillingAccountServiceTests {
+
+    @Autowired
+    private BillingAccountService billingAccountService;
+
+    @Autowired
+    private BillingAccountRepository billingAccountRepository;
+
+    @Test
+    void testCreateAccountIsIdempotentOnRetry() {
+        BillingAccount first = billingAccountService.createAccount("patient-retry", "Retry Patient",
+                "retry@example.com").join();
+        BillingAccount retry = billingAccountService.createAccount("patient-retry", "Retry Patient",
+                "retry@example.com").join();
+
+        assertEquals(first.getAccountId(), retry.getAccountId());
+        assertTrue(billingAccountRepository.findByPatientId("patient-retry").isPresent());
+    }
+
+    @Test
+    void testConcurrentCreatesForSamePatientShareOneAccount() {
+        List<CompletableFuture<BillingAccount>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> billingAccountService.createAccount(
+                    "patient-concurrent", "Concurrent Patient", "concurrent@example.com").join()));
+        }
+
+        Set<String> accountIds = futures.stream()
+                .map(CompletableFuture::join)
+                .map(account -> account.getAccountId().toString())
+                .collect(Collectors.toSet());
+
+        assertEquals(1, accountIds.size());
+        assertEquals(accountIds.iterator().next(), billingAccountRepository.findByPatientId("patient-concurrent")
+                .orElseThrow().getAccountId().toString());
+    }
+
+    @Test
+    void testConcurrentCreatesForDifferentPatientsAreAllStored() {
+        long before = billingAccountRepository.count();
+        List<CompletableFuture<BillingAccount>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(billingAccountService.createAccount("patient-batch-" + i, "Batch Patient " + i,
+                    "batch" + i + "@example.com"));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertEquals(before + 500, billingAccountRepository.count());
+    }
+}
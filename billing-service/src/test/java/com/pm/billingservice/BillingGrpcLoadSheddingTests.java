@@ -0,0 +1,74 @@
+package com.pm.billingservice;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import com.pm.billingservice.benchmark.GrpcPortCapture;
+import com.pm.billingservice.config.GrpcServerExecutor;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"grpc.server.port=0", "server.port=0",
+        "billing.grpc.server.executor=BOUNDED", "billing.grpc.server.threads=1",
+        "billing.grpc.server.queue-capacity=1"})
+@Import(GrpcPortCapture.class)
+class BillingGrpcLoadSheddingTests {
+
+    @Autowired
+    private GrpcPortCapture portCapture;
+
+    @Autowired
+    private GrpcServerExecutor grpcServerExecutor;
+
+    @Test
+    void testSaturatedServerShedsCallsWithResourceExhausted() throws Exception {
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(portCapture.target()).usePlaintext().build();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            BillingServiceGrpc.BillingServiceBlockingStub stub = BillingServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(10, TimeUnit.SECONDS);
+            // one task on the only thread, one waiting: the queue is at capacity
+            for (int i = 0; i < 2; i++) {
+                grpcServerExecutor.getExecutor().execute(() -> awaitQuietly(release));
+            }
+
+            StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                    () -> stub.createBillingAccount(request("patient-shed")));
+            assertEquals(Status.Code.RESOURCE_EXHAUSTED, error.getStatus().getCode());
+
+            release.countDown();
+            BillingResponse response = stub.createBillingAccount(request("patient-after-shed"));
+            assertEquals("ACTIVE", response.getStatus());
+        } finally {
+            release.countDown();
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static BillingRequest request(String patientId) {
+        return BillingRequest.newBuilder()
+                .setPatientId(patientId)
+                .setName("Shed Patient")
+                .setEmail(patientId + "@example.com")
+                .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pm.billingservice.benchmark;
+
+import com.pm.billingservice.repository.BillingAccountRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Accounts stored per second on embedded H2 while {@link BillingLoadClient} drives
+ * {@code CreateBillingAccount} concurrently. Compare against one commit per insert with
+ * {@code mvn test -Pbenchmark -Dbilling.store.batch-size=1}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"grpc.server.port=0", "server.port=0"})
+@Import(GrpcPortCapture.class)
+class BillingAccountStoreBenchmarkTests {
+
+    @Autowired
+    private GrpcPortCapture portCapture;
+
+    @Autowired
+    private BillingAccountRepository billingAccountRepository;
+
+    @Value("${billing.store.batch-size}")
+    private int batchSize;
+
+    @Test
+    void accountsPerSecondUnderConcurrentLoad() throws Exception {
+        BillingLoadClient.Options options = new BillingLoadClient.Options(
+                portCapture.target(),
+                Integer.getInteger("benchmark.channels", 4),
+                Integer.getInteger("benchmark.concurrency", 128),
+                0,
+                Integer.getInteger("benchmark.duration", 10));
+
+        long before = billingAccountRepository.count();
+        BillingLoadClient.Result result = new BillingLoadClient(options).run();
+        long stored = billingAccountRepository.count() - before;
+
+        System.out.printf("Billing account store batch-size=%d concurrency=%d: %.0f accounts/sec (%s)%n",
+                batchSize, options.concurrency(), stored / result.seconds(), result.summary());
+
+        assertEquals(0, result.errors());
+        assertEquals(result.calls(), stored);
+    }
+}
@@ -0,0 +1,42 @@
+package com.pm.billingservice.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the billing service on a random gRPC port and drives it with {@link BillingLoadClient}.
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}. Load shape is set with
+ * {@code -Dbenchmark.channels}, {@code -Dbenchmark.concurrency}, {@code -Dbenchmark.warmup}
+ * and {@code -Dbenchmark.duration}; server tuning with the usual {@code billing.grpc.server.*} keys.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"grpc.server.port=0", "server.port=0"})
+@Import(GrpcPortCapture.class)
+class BillingGrpcServerBenchmarkTests {
+
+    @Autowired
+    private GrpcPortCapture portCapture;
+
+    @Test
+    void createBillingAccountThroughput() throws Exception {
+        BillingLoadClient.Options options = new BillingLoadClient.Options(
+                portCapture.target(),
+                Integer.getInteger("benchmark.channels", 4),
+                Integer.getInteger("benchmark.concurrency", 64),
+                Integer.getInteger("benchmark.warmup", 3),
+                Integer.getInteger("benchmark.duration", 10));
+
+        BillingLoadClient.Result result = new BillingLoadClient(options).run();
+        System.out.printf("CreateBillingAccount channels=%d concurrency=%d: %s%n",
+                options.channels(), options.concurrency(), result.summary());
+
+        assertEquals(0, result.errors());
+        assertTrue(result.calls() > 0);
+    }
+}
@@ -0,0 +1,175 @@
+package com.pm.billingservice.benchmark;
+
+import billing.BillingRequest;
+import billing.BillingServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator for {@code CreateBillingAccount}. Each worker runs on its
+ * own virtual thread, issues blocking calls back to back over one of {@code channels}
+ * HTTP/2 connections, and records per-call latency. Results are merged at the end to
+ * report QPS and latency percentiles.
+ *
+ * <p>Standalone usage against a running server:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.pm.billingservice.benchmark.BillingLoadClient \
+ *     -Dexec.args="--target=localhost:9001 --channels=4 --concurrency=64 --duration=30 --warmup=5"
+ * </pre>
+ */
+public class BillingLoadClient {
+
+    public record Options(String target, int channels, int concurrency, int warmupSeconds, int durationSeconds) {
+    }
+
+    public record Result(long calls, long errors, double seconds, long[] sortedLatenciesNanos) {
+
+        public double qps() {
+            return calls / seconds;
+        }
+
+        public double percentileMicros(double percentile) {
+            if (sortedLatenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(0, index)] / 1_000.0;
+        }
+
+        public String summary() {
+            return String.format("calls=%d errors=%d qps=%.0f p50=%.0fus p90=%.0fus p99=%.0fus p99.9=%.0fus max=%.0fus",
+                    calls, errors, qps(), percentileMicros(50), percentileMicros(90), percentileMicros(99),
+                    percentileMicros(99.9), percentileMicros(100));
+        }
+    }
+
+    private final Options options;
+
+    public BillingLoadClient(Options options) {
+        this.options = options;
+    }
+
+    public Result run() throws Exception {
+        List<ManagedChannel> channels = new ArrayList<>(options.channels());
+        for (int i = 0; i < options.channels(); i++) {
+            channels.add(NettyChannelBuilder.forTarget(options.target()).usePlaintext().build());
+        }
+        try {
+            if (options.warmupSeconds() > 0) {
+                drive(channels, options.warmupSeconds());
+            }
+            return drive(channels, options.durationSeconds());
+        } finally {
+            for (ManagedChannel channel : channels) {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private Result drive(List<ManagedChannel> channels, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        // fresh patientIds per run so warmup does not turn the measured run into idempotent replays
+        String runId = Long.toHexString(System.nanoTime());
+        List<Future<Worker>> futures = new ArrayList<>(options.concurrency());
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                Worker worker = new Worker(BillingServiceGrpc.newBlockingStub(channels.get(i % channels.size())),
+                        runId + "-" + i);
+                futures.add(workers.submit(() -> worker.run(deadline)));
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long errors = 0;
+        int total = 0;
+        List<Worker> finished = new ArrayList<>(futures.size());
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            finished.add(worker);
+            errors += worker.errors;
+            total += worker.count;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : finished) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(total, errors, elapsed, latencies);
+    }
+
+    private static final class Worker {
+        private final BillingServiceGrpc.BillingServiceBlockingStub stub;
+        private final String id;
+        private long[] latencies = new long[1 << 12];
+        private int count;
+        private long errors;
+
+        private Worker(BillingServiceGrpc.BillingServiceBlockingStub stub, String id) {
+            this.stub = stub;
+            this.id = id;
+        }
+
+        private Worker run(long deadline) {
+            long seq = 0;
+            while (System.nanoTime() < deadline) {
+                BillingRequest request = BillingRequest.newBuilder()
+                        .setPatientId("bench-" + id + "-" + seq++)
+                        .setName("Benchmark Patient")
+                        .setEmail("bench" + id + "@example.com")
+                        .build();
+                long begin = System.nanoTime();
+                try {
+                    stub.withDeadlineAfter(5, TimeUnit.SECONDS).createBillingAccount(request);
+                } catch (RuntimeException e) {
+                    errors++;
+                    continue;
+                }
+                record(System.nanoTime() - begin);
+            }
+            return this;
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = "localhost:9001";
+        int channels = 4;
+        int concurrency = 64;
+        int warmup = 5;
+        int duration = 30;
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected --key=value but got " + arg);
+            }
+            switch (kv[0]) {
+                case "target" -> target = kv[1];
+                case "channels" -> channels = Integer.parseInt(kv[1]);
+                case "concurrency" -> concurrency = Integer.parseInt(kv[1]);
+                case "warmup" -> warmup = Integer.parseInt(kv[1]);
+                case "duration" -> duration = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+            }
+        }
+        Result result = new BillingLoadClient(new Options(target, channels, concurrency, warmup, duration)).run();
+        System.out.println(result.summary());
+    }
+}
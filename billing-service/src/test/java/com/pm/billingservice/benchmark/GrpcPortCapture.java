@@ -0,0 +1,23 @@
+package com.pm.billingservice.benchmark;
+
+import net.devh.boot.grpc.server.event.GrpcServerStartedEvent;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Records the port the gRPC server bound to when a benchmark starts it on {@code grpc.server.port=0}.
+ * Add it to the test context with {@code @Import(GrpcPortCapture.class)}.
+ */
+@TestConfiguration
+public class GrpcPortCapture {
+    private volatile int port;
+
+    @EventListener
+    void onStarted(GrpcServerStartedEvent event) {
+        port = event.getPort();
+    }
+
+    public String target() {
+        return "localhost:" + port;
+    }
+}
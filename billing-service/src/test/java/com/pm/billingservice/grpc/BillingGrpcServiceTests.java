@@ -0,0 +1,71 @@
+package com.pm.billingservice.grpc;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import com.pm.billingservice.config.GrpcServerExecutor;
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.service.BillingAccountService;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BillingGrpcServiceTests {
+
+    private final BillingAccountService billingAccountService = mock(BillingAccountService.class);
+    private final GrpcServerExecutor grpcServerExecutor = mock(GrpcServerExecutor.class);
+
+    @Test
+    void testRejectedResponseExecutorStillCompletesTheCall() {
+        BillingAccount account = new BillingAccount(UUID.randomUUID(), "patient-rejected", "Rejected Patient",
+                "rejected@example.com", BillingAccount.STATUS_ACTIVE, Instant.now());
+        when(billingAccountService.createAccount("patient-rejected", "Rejected Patient", "rejected@example.com"))
+                .thenReturn(CompletableFuture.completedFuture(account));
+        when(grpcServerExecutor.getResponseExecutor()).thenReturn(task -> {
+            throw new RejectedExecutionException("shut down");
+        });
+        RecordingObserver observer = new RecordingObserver();
+
+        new BillingGrpcService(billingAccountService, grpcServerExecutor).createBillingAccount(
+                BillingRequest.newBuilder()
+                        .setPatientId("patient-rejected")
+                        .setName("Rejected Patient")
+                        .setEmail("rejected@example.com")
+                        .build(), observer);
+
+        assertEquals(1, observer.responses.size());
+        assertEquals(account.getAccountId().toString(), observer.responses.get(0).getAccountId());
+        assertTrue(observer.completed);
+        assertNull(observer.error);
+    }
+
+    private static class RecordingObserver implements StreamObserver<BillingResponse> {
+        private final List<BillingResponse> responses = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onNext(BillingResponse value) {
+            responses.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
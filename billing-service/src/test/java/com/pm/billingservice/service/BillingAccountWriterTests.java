@@ -0,0 +1,79 @@
+package com.pm.billingservice.service;
+
+import com.pm.billingservice.config.BillingStoreProperties;
+import com.pm.billingservice.model.BillingAccount;
+import com.pm.billingservice.repository.BillingAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BillingAccountWriterTests {
+
+    private final BillingAccountRepository repository = mock(BillingAccountRepository.class);
+    private BillingAccountWriter writer;
+
+    private BillingAccountWriter startWriter() {
+        BillingStoreProperties properties = new BillingStoreProperties();
+        properties.setLinger(Duration.ofMillis(50));
+        writer = new BillingAccountWriter(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                properties);
+        writer.start();
+        return writer;
+    }
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    private static BillingAccount account(String patientId) {
+        return new BillingAccount(UUID.randomUUID(), patientId, "Writer Patient", patientId + "@example.com",
+                BillingAccount.STATUS_ACTIVE, Instant.now());
+    }
+
+    @Test
+    void testFailedDuplicateLookupOnlyFailsThatRow() {
+        BillingAccount duplicate = account("patient-duplicate");
+        BillingAccount fresh = account("patient-fresh");
+        doThrow(new DuplicateKeyException("batch")).when(repository).insertAll(anyList());
+        doThrow(new DuplicateKeyException("row")).when(repository).insert(duplicate);
+        when(repository.findByPatientId("patient-duplicate"))
+                .thenThrow(new DataAccessResourceFailureException("lookup failed"));
+
+        BillingAccountWriter writer = startWriter();
+        CompletableFuture<BillingAccount> failed = writer.submit(duplicate);
+        CompletableFuture<BillingAccount> stored = writer.submit(fresh);
+
+        CompletionException error = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, error.getCause());
+        assertEquals(fresh, stored.join());
+    }
+
+    @Test
+    void testSubmitAfterStopIsRejected() {
+        BillingAccountWriter writer = startWriter();
+        writer.stop();
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> writer.submit(account("patient-late")).join());
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+}
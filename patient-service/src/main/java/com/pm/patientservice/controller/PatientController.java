@@ -1,11 +1,15 @@
 package com.pm.patientservice.controller;
 
+import com.pm.patientservice.dedupe.DuplicateDetectionService;
+import com.pm.patientservice.dto.DuplicateCandidateDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.service.CreatedPatient;
 import com.pm.patientservice.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,10 +21,14 @@ import java.util.UUID;
 @Tag(name = "Patient", description = "API for managing Patients")
 public class PatientController {
     
+    public static final String POSSIBLE_DUPLICATES_HEADER = "Possible-Duplicates";
+
     private final PatientService patientService;
+    private final DuplicateDetectionService duplicateDetectionService;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, DuplicateDetectionService duplicateDetectionService) {
         this.patientService = patientService;
+        this.duplicateDetectionService = duplicateDetectionService;
     }
 
     @GetMapping
@@ -40,8 +48,27 @@ public class PatientController {
     @PostMapping
     @Operation(summary = "Create new Patient")
     public ResponseEntity<PatientResponseDTO> createPatient(@Valid @RequestBody PatientRequestDTO patientRequestDTO) {
-        PatientResponseDTO patientResponseDTO = patientService.createPatient(patientRequestDTO);
-        return ResponseEntity.ok().body(patientResponseDTO);
+        CreatedPatient created = patientService.createPatientWithDuplicateCheck(patientRequestDTO);
+        if (created.possibleDuplicates().isEmpty()) {
+            return ResponseEntity.ok().body(created.patient());
+        }
+        return ResponseEntity.ok()
+                .header(POSSIBLE_DUPLICATES_HEADER, created.possibleDuplicates().stream()
+                        .map(DuplicateCandidateDTO::getPatientId)
+                        .toArray(String[]::new))
+                .body(created.patient());
+    }
+
+    @PostMapping("/duplicates/check")
+    @Operation(summary = "Find existing Patients that look like a duplicate of the given one")
+    public ResponseEntity<List<DuplicateCandidateDTO>> checkDuplicates(@Valid @RequestBody PatientRequestDTO patientRequestDTO) {
+        return ResponseEntity.ok().body(duplicateDetectionService.findPossibleDuplicates(patientRequestDTO));
+    }
+
+    @GetMapping("/duplicates")
+    @Operation(summary = "Scan all Patients for likely duplicate pairs")
+    public ResponseEntity<List<DuplicateCandidateDTO>> scanDuplicates(@RequestParam(defaultValue = "100") @Min(1) int limit) {
+        return ResponseEntity.ok().body(duplicateDetectionService.scanForDuplicates(limit));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,100 @@
+package com.pm.patientservice.dedupe;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// normalization and blocking keys. two patients are only ever compared if they share
+// at least one key, which turns the all-pairs O(n^2) comparison into small per-block ones
+public final class BlockingKeys {
+
+    // key positions in PatientFingerprint.keys(), also the order pairs are attributed in
+    public static final int NAME = 0;
+    public static final int EMAIL = 1;
+    public static final int DATE_OF_BIRTH = 2;
+    public static final int COUNT = 3;
+
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L} ]");
+    private static final Pattern LATIN_TOKEN = Pattern.compile("[a-z]+");
+
+    private BlockingKeys() {
+    }
+
+    public static PatientFingerprint fingerprint(UUID id, String name, String email, LocalDate dateOfBirth) {
+        String normalizedName = normalizeName(name);
+        String emailLocal = normalizeEmailLocal(email);
+        String[] keys = new String[COUNT];
+        keys[NAME] = normalizedName.isEmpty() ? null : "N:" + nameKey(normalizedName);
+        keys[EMAIL] = emailLocal.isEmpty() ? null : "E:" + emailLocal;
+        // dob alone puts ~n/30000 patients in a block, the first name initial keeps blocks small
+        keys[DATE_OF_BIRTH] = dateOfBirth == null || normalizedName.isEmpty()
+                ? null : "D:" + dateOfBirth + ":" + normalizedName.charAt(0);
+        return new PatientFingerprint(id, normalizedName, emailLocal, dateOfBirth, keys);
+    }
+
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        // José and Jose must block together, so accents are split off and dropped first.
+        // letters of other scripts are kept as they are
+        String decomposed = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll("").trim().replaceAll(" +", " ");
+    }
+
+    // john.doe+clinic@x.com and JohnDoe@y.com both become johndoe
+    public static String normalizeEmailLocal(String email) {
+        if (email == null) {
+            return "";
+        }
+        String local = email.toLowerCase(Locale.ROOT);
+        int at = local.indexOf('@');
+        if (at >= 0) {
+            local = local.substring(0, at);
+        }
+        int plus = local.indexOf('+');
+        if (plus >= 0) {
+            local = local.substring(0, plus);
+        }
+        return local.replaceAll("[._-]", "");
+    }
+
+    // soundex of every name token, sorted so "Doe John" and "John Doe" block together.
+    // soundex only knows a-z, any other token is its own key
+    static String nameKey(String normalizedName) {
+        if (normalizedName.isEmpty()) {
+            return "";
+        }
+        String[] codes = normalizedName.split(" ");
+        for (int i = 0; i < codes.length; i++) {
+            if (LATIN_TOKEN.matcher(codes[i]).matches()) {
+                codes[i] = soundex(codes[i]);
+            }
+        }
+        Arrays.sort(codes);
+        return String.join("", codes);
+    }
+
+    static String soundex(String token) {
+        char[] code = {token.toUpperCase(Locale.ROOT).charAt(0), '0', '0', '0'};
+        int length = 1;
+        char last = SOUNDEX_CODES.charAt(token.charAt(0) - 'a');
+        for (int i = 1; i < token.length() && length < 4; i++) {
+            char c = token.charAt(i);
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (digit != '0' && digit != last) {
+                code[length++] = digit;
+            }
+            // h and w do not separate letters with the same code, vowels do
+            if (c != 'h' && c != 'w') {
+                last = digit;
+            }
+        }
+        return new String(code);
+    }
+}
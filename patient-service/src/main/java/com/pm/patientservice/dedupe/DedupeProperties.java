@@ -0,0 +1,51 @@
+package com.pm.patientservice.dedupe;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "dedupe")
+public class DedupeProperties {
+
+    // pairs scoring at least this are reported as possible duplicates
+    private double threshold = 0.85;
+
+    // blocks bigger than this (very common names) are not compared pairwise
+    private int maxBlockSize = 500;
+
+    // candidate lists shorter than this are scored on the calling thread
+    private int parallelThreshold = 256;
+
+    // fork-join pool size for scoring, 0 means one thread per core
+    private int parallelism = 0;
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMaxBlockSize() {
+        return maxBlockSize;
+    }
+
+    public void setMaxBlockSize(int maxBlockSize) {
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
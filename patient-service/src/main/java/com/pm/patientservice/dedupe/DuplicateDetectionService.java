@@ -0,0 +1,97 @@
+package com.pm.patientservice.dedupe;
+
+import com.pm.patientservice.dto.DuplicateCandidateDTO;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+@EnableConfigurationProperties(DedupeProperties.class)
+public class DuplicateDetectionService {
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    // matches the Top10000 in the repository's keyset queries
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final PatientRepository patientRepository;
+    private final DuplicateIndex index = new DuplicateIndex();
+    private final ForkJoinPool pool;
+    private final DuplicateScorer scorer;
+    private final int maxBlockSize;
+
+    public DuplicateDetectionService(PatientRepository patientRepository, DedupeProperties properties) {
+        this.patientRepository = patientRepository;
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.scorer = new DuplicateScorer(properties.getThreshold(), properties.getParallelThreshold(), pool);
+        this.maxBlockSize = properties.getMaxBlockSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        List<Patient> page = patientRepository.findTop10000ByOrderById();
+        page.forEach(this::index);
+        while (page.size() >= LOAD_PAGE_SIZE) {
+            page = patientRepository.findTop10000ByIdGreaterThanOrderById(page.get(page.size() - 1).getId());
+            page.forEach(this::index);
+        }
+        log.info("Indexed {} patients for duplicate detection in {} ms", index.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    public void index(Patient patient) {
+        index.put(BlockingKeys.fingerprint(patient.getId(), patient.getName(), patient.getEmail(),
+                patient.getDateOfBirth()));
+    }
+
+    public void remove(UUID id) {
+        index.remove(id);
+    }
+
+    // existing patients that look like the one described by the request, best match first
+    public List<DuplicateCandidateDTO> findPossibleDuplicates(PatientRequestDTO patientRequestDTO) {
+        LocalDate dateOfBirth = patientRequestDTO.getDateOfBirth() == null
+                ? null : LocalDate.parse(patientRequestDTO.getDateOfBirth());
+        PatientFingerprint probe = BlockingKeys.fingerprint(null, patientRequestDTO.getName(),
+                patientRequestDTO.getEmail(), dateOfBirth);
+        return scorer.match(probe, index.candidates(probe, maxBlockSize)).stream()
+                .map(DuplicateDetectionService::toDTO)
+                .toList();
+    }
+
+    // every likely duplicate pair in the table, best match first. limit is at least 1
+    public List<DuplicateCandidateDTO> scanForDuplicates(int limit) {
+        long start = System.currentTimeMillis();
+        List<DuplicateScorer.Match> matches = scorer.scan(index.snapshot(maxBlockSize));
+        log.info("Duplicate scan over {} patients found {} pairs in {} ms", index.size(), matches.size(),
+                System.currentTimeMillis() - start);
+        return matches.stream().limit(limit).map(DuplicateDetectionService::toDTO).toList();
+    }
+
+    private static DuplicateCandidateDTO toDTO(DuplicateScorer.Match match) {
+        DuplicateCandidateDTO dto = new DuplicateCandidateDTO();
+        dto.setPatientId(match.patientId().toString());
+        dto.setDuplicateOfId(match.duplicateOfId() == null ? null : match.duplicateOfId().toString());
+        dto.setScore(match.score());
+        return dto;
+    }
+}
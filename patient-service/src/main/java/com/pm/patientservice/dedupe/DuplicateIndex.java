@@ -0,0 +1,176 @@
+package com.pm.patientservice.dedupe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// blocking key -> patients posting lists. patients are addressed by an int slot so a
+// posting list is a plain int[] rather than a set of boxed UUIDs, which keeps millions
+// of patients affordable in memory. removed slots are nulled and reused by the next put
+public class DuplicateIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<PatientFingerprint> slots = new ArrayList<>();
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private final Map<String, Postings> blocks = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    public void put(PatientFingerprint fingerprint) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(fingerprint.id());
+            Integer free = freeSlots.poll();
+            int slot;
+            if (free != null) {
+                slot = free;
+                slots.set(slot, fingerprint);
+            } else {
+                slot = slots.size();
+                slots.add(fingerprint);
+            }
+            slotById.put(fingerprint.id(), slot);
+            for (String key : fingerprint.keys()) {
+                if (key != null) {
+                    blocks.computeIfAbsent(key, k -> new Postings()).add(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        PatientFingerprint old = slots.set(slot, null);
+        for (String key : old.keys()) {
+            if (key == null) {
+                continue;
+            }
+            Postings postings = blocks.get(key);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                blocks.remove(key);
+            }
+        }
+        freeSlots.push(slot);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every indexed patient sharing a block of at most maxBlockSize with the probe
+    public List<PatientFingerprint> candidates(PatientFingerprint probe, int maxBlockSize) {
+        lock.readLock().lock();
+        try {
+            int[] seen = new int[0];
+            int count = 0;
+            for (String key : probe.keys()) {
+                Postings postings = key == null ? null : blocks.get(key);
+                if (postings == null || postings.size > maxBlockSize) {
+                    continue;
+                }
+                seen = Arrays.copyOf(seen, count + postings.size);
+                System.arraycopy(postings.slots, 0, seen, count, postings.size);
+                count += postings.size;
+            }
+            Arrays.sort(seen, 0, count);
+            List<PatientFingerprint> candidates = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && seen[i] == seen[i - 1]) {
+                    continue;
+                }
+                PatientFingerprint candidate = slots.get(seen[i]);
+                if (candidate != null && !candidate.id().equals(probe.id())) {
+                    candidates.add(candidate);
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Block(String key, PatientFingerprint[] members) {
+    }
+
+    // blocks too big to compare pairwise are skipped, but the scan still needs their keys
+    // to know a pair sharing one of them was not already scored there
+    public record Snapshot(List<Block> blocks, Set<String> oversizedKeys) {
+    }
+
+    // copy of every block with 2..maxBlockSize patients, so the scan can run without the lock
+    public Snapshot snapshot(int maxBlockSize) {
+        lock.readLock().lock();
+        try {
+            List<Block> result = new ArrayList<>();
+            Set<String> oversized = new HashSet<>();
+            for (Map.Entry<String, Postings> entry : blocks.entrySet()) {
+                Postings postings = entry.getValue();
+                if (postings.size > maxBlockSize) {
+                    oversized.add(entry.getKey());
+                    continue;
+                }
+                if (postings.size < 2) {
+                    continue;
+                }
+                PatientFingerprint[] members = new PatientFingerprint[postings.size];
+                for (int i = 0; i < postings.size; i++) {
+                    members[i] = slots.get(postings.slots[i]);
+                }
+                result.add(new Block(entry.getKey(), members));
+            }
+            return new Snapshot(result, oversized);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[2];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.pm.patientservice.dedupe;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// pair scoring and the fork-join scan over index blocks. kept free of Spring so the
+// benchmark can drive it directly against millions of synthetic patients
+public class DuplicateScorer {
+
+    private static final double NAME_WEIGHT = 0.45;
+    private static final double EMAIL_WEIGHT = 0.35;
+    private static final double DATE_OF_BIRTH_WEIGHT = 0.20;
+
+    // blocks per fork-join leaf task
+    private static final int BLOCKS_PER_TASK = 64;
+
+    public record Match(UUID patientId, UUID duplicateOfId, double score) {
+    }
+
+    private final double threshold;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    public DuplicateScorer(double threshold, int parallelThreshold, ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    // weighted name / email / dob similarity, 0 when the pair cannot reach the threshold
+    public double score(PatientFingerprint a, PatientFingerprint b) {
+        double dob = a.dateOfBirth() != null && a.dateOfBirth().equals(b.dateOfBirth()) ? 1.0 : 0.0;
+        double name = StringSimilarity.jaroWinkler(a.name(), b.name());
+        double partial = NAME_WEIGHT * name + DATE_OF_BIRTH_WEIGHT * dob;
+        // the email edit distance is the expensive part, skip it when even a perfect match would not do
+        if (partial + EMAIL_WEIGHT < threshold) {
+            return 0.0;
+        }
+        double email = a.emailLocal().isEmpty() || b.emailLocal().isEmpty()
+                ? 0.0 : StringSimilarity.levenshtein(a.emailLocal(), b.emailLocal());
+        return partial + EMAIL_WEIGHT * email;
+    }
+
+    public List<Match> match(PatientFingerprint probe, List<PatientFingerprint> candidates) {
+        List<Match> matches;
+        if (candidates.size() < parallelThreshold) {
+            matches = candidates.stream().map(c -> toMatch(probe, c)).filter(Objects::nonNull).toList();
+        } else {
+            matches = pool.submit(() -> candidates.parallelStream()
+                    .map(c -> toMatch(probe, c))
+                    .filter(Objects::nonNull)
+                    .toList()).join();
+        }
+        return sortByScore(matches);
+    }
+
+    private Match toMatch(PatientFingerprint probe, PatientFingerprint candidate) {
+        double score = score(probe, candidate);
+        return score >= threshold ? new Match(candidate.id(), probe.id(), score) : null;
+    }
+
+    public List<Match> scan(DuplicateIndex.Snapshot snapshot) {
+        return sortByScore(pool.invoke(new ScanTask(snapshot, 0, snapshot.blocks().size())));
+    }
+
+    private static List<Match> sortByScore(List<Match> matches) {
+        List<Match> sorted = new ArrayList<>(matches);
+        sorted.sort(Comparator.comparingDouble(Match::score).reversed());
+        return sorted;
+    }
+
+    private final class ScanTask extends RecursiveTask<List<Match>> {
+        private final DuplicateIndex.Snapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private ScanTask(DuplicateIndex.Snapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Match> compute() {
+            if (to - from <= BLOCKS_PER_TASK) {
+                List<Match> matches = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    scanBlock(snapshot.blocks().get(i), snapshot.oversizedKeys(), matches);
+                }
+                return matches;
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(snapshot, from, mid);
+            left.fork();
+            List<Match> matches = new ArrayList<>(new ScanTask(snapshot, mid, to).compute());
+            matches.addAll(left.join());
+            return matches;
+        }
+    }
+
+    private void scanBlock(DuplicateIndex.Block block, Set<String> oversizedKeys, List<Match> out) {
+        int keyType = keyType(block.key());
+        PatientFingerprint[] members = block.members();
+        for (int i = 0; i < members.length; i++) {
+            for (int j = i + 1; j < members.length; j++) {
+                if (scoredInEarlierBlock(members[i], members[j], keyType, oversizedKeys)) {
+                    continue;
+                }
+                double score = score(members[i], members[j]);
+                if (score >= threshold) {
+                    out.add(new Match(members[j].id(), members[i].id(), score));
+                }
+            }
+        }
+    }
+
+    // a pair sharing several keys is only scored in the block of its first shared key
+    private static boolean scoredInEarlierBlock(PatientFingerprint a, PatientFingerprint b, int keyType,
+                                                Set<String> oversizedKeys) {
+        for (int t = 0; t < keyType; t++) {
+            String key = a.keys()[t];
+            if (key != null && key.equals(b.keys()[t]) && !oversizedKeys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int keyType(String key) {
+        return switch (key.charAt(0)) {
+            case 'N' -> BlockingKeys.NAME;
+            case 'E' -> BlockingKeys.EMAIL;
+            default -> BlockingKeys.DATE_OF_BIRTH;
+        };
+    }
+}
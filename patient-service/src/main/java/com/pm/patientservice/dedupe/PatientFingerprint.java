@@ -0,0 +1,8 @@
+package com.pm.patientservice.dedupe;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// the normalized fields dedupe compares, kept in memory instead of the full Patient
+public record PatientFingerprint(UUID id, String name, String emailLocal, LocalDate dateOfBirth, String[] keys) {
+}
@@ -0,0 +1,27 @@
+package com.pm.patientservice.dto;
+
+public class DuplicateCandidateDTO {
+
+    private String patientId;
+    private String duplicateOfId;
+    private double score;
+
+    public String getPatientId() {
+        return patientId;
+    }
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    public String getDuplicateOfId() {
+        return duplicateOfId;
+    }
+    public void setDuplicateOfId(String duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+    public double getScore() {
+        return score;
+    }
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -1,8 +1,18 @@
 package com.pm.patientservice.exceptions;
 
-public class EmailAlreadyExistException extends RuntimeException {
-  public EmailAlreadyExistException(String message) {
+public class EmailAlreadyExistException extends PatientServiceException {
+    private final String email;
 
-    super(message);
-  }
+    public EmailAlreadyExistException(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getMessage() {
+        return "A patient with email " + email + " already exists";
+    }
 }
@@ -0,0 +1,11 @@
+package com.pm.patientservice.exceptions;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// errors.* is read by GlobalExceptionHandler and MissingIdCache, so it is registered here
+// rather than on either of them
+@Configuration
+@EnableConfigurationProperties(ErrorPathProperties.class)
+public class ErrorPathConfig {
+}
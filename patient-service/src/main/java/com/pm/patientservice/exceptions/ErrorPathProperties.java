@@ -0,0 +1,43 @@
+package com.pm.patientservice.exceptions;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "errors")
+// named apart from Boot's own ErrorProperties (server.error.*), registered by ErrorPathConfig
+public class ErrorPathProperties {
+
+    // the same error is logged at most once per interval, with a count of the ones skipped
+    private Duration logInterval = Duration.ofSeconds(10);
+
+    // slots for recently looked up ids that did not exist, 0 turns the cache off
+    private int missingIdCacheSize = 65_536;
+
+    // how long an id is answered with 404 without asking the database again
+    private Duration missingIdTtl = Duration.ofSeconds(30);
+
+    public Duration getLogInterval() {
+        return logInterval;
+    }
+
+    public void setLogInterval(Duration logInterval) {
+        this.logInterval = logInterval;
+    }
+
+    public int getMissingIdCacheSize() {
+        return missingIdCacheSize;
+    }
+
+    public void setMissingIdCacheSize(int missingIdCacheSize) {
+        this.missingIdCacheSize = missingIdCacheSize;
+    }
+
+    public Duration getMissingIdTtl() {
+        return missingIdTtl;
+    }
+
+    public void setMissingIdTtl(Duration missingIdTtl) {
+        this.missingIdTtl = missingIdTtl;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pm.patientservice.exceptions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// an error response serialized once up front. every request answered with it shares the
+// same bytes and headers, so the error path does no map building or JSON writing
+public final class ErrorResponse {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    private ErrorResponse(HttpStatus status, MediaType contentType, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setContentLength(body.length);
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    // RFC 9457 problem detail, with the "Message" member earlier clients read
+    public static ErrorResponse problem(HttpStatus status, String title) {
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("type", "about:blank");
+        problem.put("title", title);
+        problem.put("status", status.value());
+        problem.put("Message", title);
+        return new ErrorResponse(status, MediaType.APPLICATION_PROBLEM_JSON, toJson(problem));
+    }
+
+    public static ErrorResponse json(HttpStatus status, Map<String, ?> body) {
+        return new ErrorResponse(status, MediaType.APPLICATION_JSON, toJson(body));
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity() {
+        return new ResponseEntity<>(body, headers, status);
+    }
+
+    private static byte[] toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error body is not serializable", e);
+        }
+    }
+}
@@ -2,41 +2,98 @@ package com.pm.patientservice.exceptions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final ErrorResponse PATIENT_NOT_FOUND = ErrorResponse.problem(HttpStatus.NOT_FOUND, "Patient Not Found");
+    private static final ErrorResponse EMAIL_ALREADY_EXIST = ErrorResponse.problem(HttpStatus.CONFLICT, "Email Already Exist");
+    private static final ErrorResponse INVALID_PARAMETER = ErrorResponse.problem(HttpStatus.BAD_REQUEST, "Invalid Request Parameter");
+    private static final ErrorResponse MALFORMED_BODY = ErrorResponse.problem(HttpStatus.BAD_REQUEST, "Malformed Request Body");
+
+    // validation failures repeat the same few field/message combinations, so their bodies
+    // are kept after the first time. bounded in case messages ever carry request values
+    private static final int MAX_VALIDATION_RESPONSES = 256;
+    private static final Comparator<FieldError> FIELD_ORDER = Comparator.comparing(FieldError::getField)
+            .thenComparing(FieldError::getDefaultMessage, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ConcurrentMap<String, ErrorResponse> validationResponses = new ConcurrentHashMap<>();
+    private final RateLimitedLogger errorLog;
+
+    public GlobalExceptionHandler(ErrorPathProperties properties) {
+        this.errorLog = new RateLimitedLogger(log, properties.getLogInterval());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        //for every error we are replaciong it with error messages
-        ex.getBindingResult().getFieldErrors().forEach(
-                error -> errors.put(error.getField(), error.getDefaultMessage()));
-        return ResponseEntity.badRequest().body(errors);
+    public ResponseEntity<byte[]> handleValidationException(MethodArgumentNotValidException ex) {
+        // the validator reports violations in no fixed order
+        List<FieldError> fieldErrors = new ArrayList<>(ex.getBindingResult().getFieldErrors());
+        fieldErrors.sort(FIELD_ORDER);
+        StringBuilder key = new StringBuilder();
+        for (FieldError error : fieldErrors) {
+            key.append(error.getField()).append('\0').append(error.getDefaultMessage()).append('\0');
+        }
+        ErrorResponse response = validationResponses.get(key.toString());
+        if (response == null) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            //for every error we are replaciong it with error messages
+            fieldErrors.forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+            response = ErrorResponse.json(HttpStatus.BAD_REQUEST, errors);
+            if (validationResponses.size() < MAX_VALIDATION_RESPONSES) {
+                validationResponses.putIfAbsent(key.toString(), response);
+            }
+        }
+        return response.toResponseEntity();
     }
 
     @ExceptionHandler(EmailAlreadyExistException.class)
-    public ResponseEntity<Map<String, String>> handleEmailAlreadyExistException(EmailAlreadyExistException ex) {
-        log.warn("Email already exist {}", ex.getMessage());
-        Map<String, String> errors = new HashMap<>();
-        errors.put("Message","Email Already Exist");
-        return ResponseEntity.badRequest().body(errors);
+    public ResponseEntity<byte[]> handleEmailAlreadyExistException(EmailAlreadyExistException ex) {
+        // the address itself stays out of the log
+        errorLog.warn("Email already exist");
+        return EMAIL_ALREADY_EXIST.toResponseEntity();
     }
+
     @ExceptionHandler(PatientNotFoundException.class)
-    public ResponseEntity<Map<String, String>> handlePatientNotFoundException(PatientNotFoundException ex) {
-        log.warn("Patient not found {}", ex.getMessage());
-        Map<String, String> errors = new HashMap<>();
-        errors.put("Message", "Patient Not Found");
-        return ResponseEntity.badRequest().body(errors);
+    public ResponseEntity<byte[]> handlePatientNotFoundException(PatientNotFoundException ex) {
+        errorLog.warn("Patient not found {}", ex.getId());
+        return PATIENT_NOT_FOUND.toResponseEntity();
     }
 
+    // e.g. a path id that is not a UUID, answered here instead of going through /error
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        errorLog.warn("Invalid request parameter {}", ex.getName());
+        return INVALID_PARAMETER.toResponseEntity();
+    }
 
+    // constraint on a request parameter, e.g. GET /patients/duplicates?limit=0
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<byte[]> handleParameterValidation(HandlerMethodValidationException ex) {
+        errorLog.warn("Invalid request parameter {}", ex.getMethod().getName());
+        return INVALID_PARAMETER.toResponseEntity();
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleNotReadable(HttpMessageNotReadableException ex) {
+        errorLog.warn("Malformed request body {}", ex.getMostSpecificCause().getClass().getSimpleName());
+        return MALFORMED_BODY.toResponseEntity();
+    }
 }
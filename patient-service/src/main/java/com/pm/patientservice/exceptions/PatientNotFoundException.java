@@ -1,7 +1,20 @@
 package com.pm.patientservice.exceptions;
 
-public class PatientNotFoundException extends RuntimeException {
-    public PatientNotFoundException(String message) {
-        super(message);
+import java.util.UUID;
+
+public class PatientNotFoundException extends PatientServiceException {
+    private final UUID id;
+
+    public PatientNotFoundException(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Patient not found with ID: " + id;
     }
 }
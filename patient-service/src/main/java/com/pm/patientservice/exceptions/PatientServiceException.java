@@ -0,0 +1,11 @@
+package com.pm.patientservice.exceptions;
+
+// domain exceptions are expected outcomes (unknown id, email taken) answered with a fixed
+// response, so they skip filling in the stack trace, which is most of the cost of throwing.
+// the message is only built when something asks for it
+public abstract class PatientServiceException extends RuntimeException {
+
+    protected PatientServiceException() {
+        super(null, null, false, false);
+    }
+}
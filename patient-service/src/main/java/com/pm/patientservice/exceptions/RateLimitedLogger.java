@@ -0,0 +1,68 @@
+package com.pm.patientservice.exceptions;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// logs each message at most once per interval and counts the rest, so a flood of the same
+// error costs one log line per interval instead of one per request. the next line that
+// gets through reports how many were dropped
+public class RateLimitedLogger {
+
+    private static final class Window {
+        private final AtomicLong nextAllowedAt = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+    }
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final Duration interval;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger log, Duration interval) {
+        this.log = log;
+        this.interval = interval;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public void warn(String message) {
+        long suppressed = acquire(message);
+        if (suppressed == 0) {
+            log.warn(message);
+        } else if (suppressed > 0) {
+            log.warn(message + " ({} more in the last {})", suppressed, interval);
+        }
+    }
+
+    // message is the key, so pass a constant pattern and put the variable part in arg
+    public void warn(String message, Object arg) {
+        long suppressed = acquire(message);
+        if (suppressed == 0) {
+            log.warn(message, arg);
+        } else if (suppressed > 0) {
+            log.warn(message + " ({} more in the last {})", arg, suppressed, interval);
+        }
+    }
+
+    // how many were dropped since the last line if this one may be logged, -1 if not
+    private long acquire(String message) {
+        if (!log.isWarnEnabled()) {
+            return -1;
+        }
+        Window window = windows.get(message);
+        if (window == null) {
+            window = windows.computeIfAbsent(message, m -> new Window());
+        }
+        long now = System.nanoTime();
+        long allowedAt = window.nextAllowedAt.get();
+        if (now - allowedAt < 0 || !window.nextAllowedAt.compareAndSet(allowedAt, now + intervalNanos)) {
+            window.suppressed.increment();
+            return -1;
+        }
+        return window.suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,51 @@
+package com.pm.patientservice.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    @Bean
+    @ConditionalOnProperty(prefix = "idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        return new InMemoryIdempotencyStore(properties.getMaxEntries(), CLOCK);
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(prefix = "idempotency", name = "store", havingValue = "jdbc")
+    static class JdbcStoreConfig {
+
+        @Bean
+        public IdempotencyStore jdbcIdempotencyStore(IdempotencyProperties properties,
+                                                     IdempotencyRecordRepository repository,
+                                                     DataSource dataSource) {
+            return new JdbcIdempotencyStore(new InMemoryIdempotencyStore(properties.getMaxEntries(), CLOCK),
+                    repository, dataSource, CLOCK);
+        }
+    }
+
+    // only wraps the patient endpoints, shouldNotFilter narrows it further to POST/PUT with the header
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                      IdempotencyProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, properties, CLOCK, meterRegistry));
+        registration.addUrlPatterns("/patients", "/patients/*");
+        return registration;
+    }
+}
@@ -0,0 +1,295 @@
+package com.pm.patientservice.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// replays the stored response for a repeated Idempotency-Key on POST/PUT /patients, so a
+// client retrying after a timeout gets the original response instead of re-running the write.
+// keys are scoped to method + path, and reusing one with a different body is rejected.
+// duplicates on this instance wait on the original's latch; across instances the store's
+// claim decides which one runs and the others poll the store for its response
+public class IdempotencyFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long CLAIM_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // hop-by-hop headers belong to the original connection, the rest are set on replay
+    // from the stored response itself
+    private static final Set<String> NOT_REPLAYED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        NOT_REPLAYED_HEADERS.addAll(List.of("Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization",
+                "TE", "Trailer", "Transfer-Encoding", "Upgrade", "Content-Length", "Content-Type", "Date",
+                REPLAYED_HEADER));
+    }
+
+    private final IdempotencyStore store;
+    private final Clock clock;
+    private final Duration ttl;
+    private final int maxBodyBytes;
+    private final Duration claimTtl;
+    private final long inFlightTimeoutNanos;
+    private final ConcurrentMap<String, CountDownLatch> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+    private final Counter mismatches;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, Clock clock,
+                             MeterRegistry meterRegistry) {
+        this.store = store;
+        this.clock = clock;
+        this.ttl = properties.getTtl();
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.claimTtl = properties.getClaimTtl();
+        this.inFlightTimeoutNanos = properties.getInFlightTimeout().toNanos();
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.conflicts = requests(meterRegistry, "conflict");
+        this.mismatches = requests(meterRegistry, "mismatch");
+        Gauge.builder("patient.idempotency.store.size", store, IdempotencyStore::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("patient.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method)) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest.body);
+
+        long deadline = System.nanoTime() + inFlightTimeoutNanos;
+        while (true) {
+            Optional<StoredResponse> stored = store.get(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), fingerprint, response);
+                return;
+            }
+
+            CountDownLatch mine = new CountDownLatch(1);
+            CountDownLatch original = inFlight.putIfAbsent(key, mine);
+            if (original == null) {
+                try {
+                    // the previous owner stores its response before releasing the key
+                    stored = store.get(key);
+                    if (stored.isPresent()) {
+                        replay(stored.get(), fingerprint, response);
+                        return;
+                    }
+                    if (store.claim(key, fingerprint, clock.instant().plus(claimTtl))) {
+                        execute(cachedRequest, response, chain, key, fingerprint);
+                        return;
+                    }
+                } finally {
+                    inFlight.remove(key, mine);
+                    mine.countDown();
+                }
+                // another instance holds the claim, poll the store for its response
+            }
+
+            // a duplicate arrived while the original is still running: wait for it and replay,
+            // or run this one if the original gave its claim up without storing a response
+            try {
+                if (!awaitOriginal(original, deadline - System.nanoTime())) {
+                    conflicts.increment();
+                    log.warn("Idempotency-Key {} still in flight, rejecting duplicate", idempotencyKey);
+                    writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+        }
+    }
+
+    // original is null when the request is running on another instance, which has no latch
+    // to wait on here
+    private static boolean awaitOriginal(CountDownLatch original, long remainingNanos) throws InterruptedException {
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        if (original != null) {
+            return original.await(remainingNanos, TimeUnit.NANOSECONDS);
+        }
+        TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, CLAIM_POLL_NANOS));
+        return true;
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String key, String fingerprint) throws ServletException, IOException {
+        executed.increment();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, responseWrapper);
+
+            int status = responseWrapper.getStatus();
+            byte[] body = responseWrapper.getContentAsByteArray();
+            // 5xx may be transient, let the retry run again
+            if (status < 500 && body.length <= maxBodyBytes) {
+                store.put(key, new StoredResponse(fingerprint, status, responseWrapper.getContentType(),
+                        replayableHeaders(responseWrapper), body, clock.instant().plus(ttl)));
+                stored = true;
+            }
+            responseWrapper.copyBodyToResponse();
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+        }
+    }
+
+    private static Map<String, List<String>> replayableHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!NOT_REPLAYED_HEADERS.contains(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private void replay(StoredResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            mismatches.increment();
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body");
+            return;
+        }
+        replayed.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = ("{\"Message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the body is needed for the fingerprint before the controller reads it
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.pm.patientservice.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    public enum StoreType {
+        MEMORY,
+        JDBC
+    }
+
+    private boolean enabled = true;
+
+    // how long a stored response is replayed for the same key
+    private Duration ttl = Duration.ofHours(24);
+
+    // oldest keys are evicted from memory beyond this
+    private int maxEntries = 100_000;
+
+    // responses larger than this are not stored
+    private int maxBodyBytes = 64 * 1024;
+
+    // how long a duplicate waits for the in-flight original before getting a 409
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+
+    // JDBC only: a key claimed by an instance that died mid-request can be taken over after
+    // this, so it has to be longer than the slowest request
+    private Duration claimTtl = Duration.ofMinutes(1);
+
+    // MEMORY only, or JDBC to also persist keys in the idempotency_record table
+    private StoreType store = StoreType.MEMORY;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Duration getInFlightTimeout() {
+        return inFlightTimeout;
+    }
+
+    public void setInFlightTimeout(Duration inFlightTimeout) {
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    public Duration getClaimTtl() {
+        return claimTtl;
+    }
+
+    public void setClaimTtl(Duration claimTtl) {
+        this.claimTtl = claimTtl;
+    }
+
+    public StoreType getStore() {
+        return store;
+    }
+
+    public void setStore(StoreType store) {
+        this.store = store;
+    }
+}
@@ -0,0 +1,36 @@
+package com.pm.patientservice.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.pending = false, r.fingerprint = :fingerprint, r.status = :status, "
+            + "r.contentType = :contentType, r.headers = :headers, r.body = :body, r.expiresAt = :expiresAt "
+            + "where r.key = :key and r.pending = true")
+    int complete(String key, String fingerprint, int status, String contentType, String headers, byte[] body,
+                 Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.pending = true")
+    int deleteClaim(String key);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt <= :now")
+    int deleteExpired(String key, Instant now);
+}
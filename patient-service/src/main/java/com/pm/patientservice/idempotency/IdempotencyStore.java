@@ -0,0 +1,22 @@
+package com.pm.patientservice.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    // completed responses only, a key that is still claimed reads as absent
+    Optional<StoredResponse> get(String key);
+
+    // reserves the key before the request runs. false means another instance holds it or
+    // already completed it; a claim older than expiresAt is considered abandoned
+    boolean claim(String key, String fingerprint, Instant expiresAt);
+
+    // completes a claim made by this instance
+    void put(String key, StoredResponse response);
+
+    // gives up a claim without storing a response, so a retry can run the request
+    void release(String key);
+
+    int size();
+}
@@ -0,0 +1,70 @@
+package com.pm.patientservice.idempotency;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// bounded TTL map. every entry gets the same ttl, so insertion order is also expiry order
+// and expired entries are always at the head: purging stops at the first live one.
+// single instance only: concurrent requests for one key are already serialized by the
+// filter, so claims always succeed here
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<String, StoredResponse> entries = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> get(String key) {
+        StoredResponse response = entries.get(key);
+        if (response == null) {
+            return Optional.empty();
+        }
+        if (response.isExpired(clock.instant())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    @Override
+    public synchronized void put(String key, StoredResponse response) {
+        // re-insert so a refreshed key moves to the tail with its new expiry
+        entries.remove(key);
+        entries.put(key, response);
+        purge(clock.instant());
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant expiresAt) {
+        return true;
+    }
+
+    @Override
+    public void release(String key) {
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void purge(Instant now) {
+        Iterator<Map.Entry<String, StoredResponse>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, StoredResponse> eldest = iterator.next();
+            if (entries.size() <= maxEntries && !eldest.getValue().isExpired(now)) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.pm.patientservice.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// memory first, idempotency_record table behind it so keys survive restarts and are
+// shared between instances. memory hits never touch the database.
+// the first instance to see a key claims it by inserting a pending row; every other instance
+// inserts nothing and waits for the response instead of running the request again
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final Logger log = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private final InMemoryIdempotencyStore memory;
+    private final IdempotencyRecordRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(InMemoryIdempotencyStore memory, IdempotencyRecordRepository repository,
+                                DataSource dataSource, Clock clock) {
+        this.memory = memory;
+        this.repository = repository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredResponse> get(String key) {
+        Optional<StoredResponse> cached = memory.get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<StoredResponse> stored = repository.findById(key)
+                .filter(r -> !r.isPending())
+                .map(r -> new StoredResponse(r.getFingerprint(), r.getStatus(), r.getContentType(),
+                        decodeHeaders(r.getHeaders()), r.getBody(), r.getExpiresAt()))
+                .filter(r -> !r.isExpired(clock.instant()));
+        stored.ifPresent(r -> memory.put(key, r));
+        return stored;
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant expiresAt) {
+        if (tryInsertClaim(key, fingerprint, expiresAt)) {
+            return true;
+        }
+        // the holder may have died mid-request, or the response expired and was not purged yet;
+        // either way the row can be replaced
+        if (repository.deleteExpired(key, clock.instant()) == 0) {
+            return false;
+        }
+        return tryInsertClaim(key, fingerprint, expiresAt);
+    }
+
+    // a plain insert rather than save(), which would merge into a row another instance owns.
+    // an existing key inserts no row instead of failing, so the common duplicate costs no
+    // exception; only two instances inserting the same new key at once still hit the primary key
+    private boolean tryInsertClaim(String key, String fingerprint, Instant expiresAt) {
+        try {
+            return jdbcTemplate.update("INSERT INTO idempotency_record "
+                            + "(idempotency_key, fingerprint, status, expires_at, pending) "
+                            + "SELECT ?, ?, 0, ?, TRUE WHERE NOT EXISTS "
+                            + "(SELECT 1 FROM idempotency_record WHERE idempotency_key = ?)",
+                    key, fingerprint, expiresAt.atOffset(ZoneOffset.UTC), key) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void put(String key, StoredResponse response) {
+        memory.put(key, response);
+        int updated = repository.complete(key, response.fingerprint(), response.status(), response.contentType(),
+                encodeHeaders(response.headers()), response.body(), response.expiresAt());
+        if (updated == 0) {
+            log.warn("Idempotency claim was lost before the response could be stored");
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        repository.deleteClaim(key);
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(clock.instant());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency records", deleted);
+        }
+    }
+
+    // one "name: value" per line, header values never contain line breaks
+    static String encodeHeaders(Map<String, List<String>> headers) {
+        StringBuilder encoded = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value ->
+                encoded.append(name).append(": ").append(value).append('\n')));
+        return encoded.toString();
+    }
+
+    static Map<String, List<String>> decodeHeaders(String encoded) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (encoded == null) {
+            return headers;
+        }
+        for (String line : encoded.split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                headers.computeIfAbsent(line.substring(0, colon), name -> new ArrayList<>())
+                        .add(line.substring(colon + 2));
+            }
+        }
+        return headers;
+    }
+}
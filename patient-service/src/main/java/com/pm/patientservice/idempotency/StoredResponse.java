@@ -0,0 +1,15 @@
+package com.pm.patientservice.idempotency;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// a response captured for an Idempotency-Key, replayed as-is for repeats. headers holds
+// everything the application set except content type/length and hop-by-hop headers
+public record StoredResponse(String fingerprint, int status, String contentType, Map<String, List<String>> headers,
+                             byte[] body, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -2,19 +2,27 @@ package com.pm.patientservice.model;
 // we need to store this in database so we need to mark it as entity
 // and also we need a primary key top store them so we need to generate a key
 
+import com.pm.patientservice.model.id.TimeOrderedId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-public class Patient {
+public class Patient implements Persistable<UUID> {
 
+    // assigned before the insert rather than by the database, so sharding can route a
+    // new patient by its id. Persistable tells Spring Data a patient with an id can still be new.
+    // New ids are time-ordered UUIDv7, patients created earlier keep their random v4 ids
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedId
     private UUID id;
+
+    @Transient
+    private boolean isNew = true;
     @NotNull
     private String address;
     @NotNull
@@ -30,6 +38,18 @@ public class Patient {
     @Column(unique = true)
     private String email;
 
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
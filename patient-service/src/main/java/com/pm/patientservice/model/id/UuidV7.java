@@ -0,0 +1,63 @@
+package com.pm.patientservice.model.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs, version 7 of RFC 9562: a 48-bit Unix millisecond timestamp, then a
+ * 12-bit counter, then 62 random bits. Ids created later sort after earlier ones, both as
+ * strings and as PostgreSQL/H2 {@code uuid} values, so new rows append to the right edge
+ * of the primary-key index instead of splitting pages all over it.
+ *
+ * <p>Within one JVM ids are strictly increasing: the counter starts at a random value in
+ * the lower half of its range each millisecond and is incremented for every id after
+ * that, overflowing into the timestamp if more than ~2k ids are taken in one millisecond.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_SEED_MASK = (1L << (COUNTER_BITS - 1)) - 1;
+
+    // timestamp << 12 | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong(
+            (System.currentTimeMillis() << COUNTER_BITS) | (new SecureRandom().nextLong() & COUNTER_SEED_MASK));
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long stamp;
+        while (true) {
+            long last = LAST.get();
+            stamp = epochMillis > last >>> COUNTER_BITS
+                    ? epochMillis << COUNTER_BITS | ThreadLocalRandom.current().nextLong() & COUNTER_SEED_MASK
+                    // same millisecond or the clock went back: keep counting from the last id
+                    : last + 1;
+            if (LAST.compareAndSet(last, stamp)) {
+                break;
+            }
+        }
+        long msb = (stamp >>> COUNTER_BITS) << 16 | 0x7000L | stamp & 0xFFFL;
+        long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** True for ids from {@link #next()}; patients created before v7 ids have random version 4 ids. */
+    public static boolean isTimeOrdered(UUID id) {
+        return id.version() == 7;
+    }
+
+    /** Creation time in Unix milliseconds of a version 7 id. */
+    public static long timestampOf(UUID id) {
+        if (!isTimeOrdered(id)) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + id);
+        }
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
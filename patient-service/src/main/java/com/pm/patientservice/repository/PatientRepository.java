@@ -1,6 +1,7 @@
 package com.pm.patientservice.repository;
 
 import com.pm.patientservice.model.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +16,12 @@ public interface PatientRepository extends JpaRepository <Patient, UUID>{
     List<Patient> findByNameContainingIgnoreCase(String name);
     List<Patient> findByEmailContainingIgnoreCase(String email);
     List<Patient> findByAddressContainingIgnoreCase(String address);
+
+    // keyset pages in id order for full scans, no offset and no count query
+    List<Patient> findTop10000ByOrderById();
+    List<Patient> findTop10000ByIdGreaterThanOrderById(UUID id);
+
+    // the same pages with the size chosen by the caller, sharding reads each shard with these
+    List<Patient> findAllByOrderById(Limit limit);
+    List<Patient> findByIdGreaterThanOrderById(UUID id, Limit limit);
 }
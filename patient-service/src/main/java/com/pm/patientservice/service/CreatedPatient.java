@@ -0,0 +1,10 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.DuplicateCandidateDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+
+import java.util.List;
+
+// a newly stored patient and the existing ones it looked like at the time
+public record CreatedPatient(PatientResponseDTO patient, List<DuplicateCandidateDTO> possibleDuplicates) {
+}
@@ -0,0 +1,69 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.exceptions.ErrorPathProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ids that were recently looked up and not found, so repeated requests for them (a scraper
+// walking made-up ids) get their 404 without a database round trip. direct-mapped: an id
+// has exactly one slot and a newer miss simply replaces whatever was there, which keeps
+// lookups lock free and the memory fixed.
+// every write on this instance keeps it current: create and update call markPresent,
+// delete calls markMissing. the cache is per instance though, so an id that another
+// instance creates (sharded saves and imports assign ids up front) can still get a stale
+// 404 here for up to errors.missing-id-ttl after a miss
+@Component
+public class MissingIdCache {
+
+    private record Entry(UUID id, long expiresAt) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final long ttlNanos;
+
+    public MissingIdCache(ErrorPathProperties properties) {
+        int size = properties.getMissingIdCacheSize();
+        if (size <= 0) {
+            slots = null;
+            mask = 0;
+        } else {
+            int capacity = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+            slots = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+        ttlNanos = properties.getMissingIdTtl().toNanos();
+    }
+
+    public boolean isMissing(UUID id) {
+        if (slots == null) {
+            return false;
+        }
+        Entry entry = slots.get(slot(id));
+        return entry != null && entry.id().equals(id) && System.nanoTime() - entry.expiresAt() < 0;
+    }
+
+    public void markMissing(UUID id) {
+        if (slots != null) {
+            slots.set(slot(id), new Entry(id, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void markPresent(UUID id) {
+        if (slots == null) {
+            return;
+        }
+        int slot = slot(id);
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.id().equals(id)) {
+            slots.compareAndSet(slot, entry, null);
+        }
+    }
+
+    private int slot(UUID id) {
+        long hash = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
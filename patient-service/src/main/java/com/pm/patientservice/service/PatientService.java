@@ -1,5 +1,7 @@
 package com.pm.patientservice.service;
 
+import com.pm.patientservice.dedupe.DuplicateDetectionService;
+import com.pm.patientservice.dto.DuplicateCandidateDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
 import com.pm.patientservice.exceptions.EmailAlreadyExistException;
@@ -16,15 +18,21 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class PatientService {
     private static final Logger log = LoggerFactory.getLogger(PatientService.class);
     private final PatientRepository patientRepository;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final MissingIdCache missingIds;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, DuplicateDetectionService duplicateDetectionService,
+                          MissingIdCache missingIds) {
         this.patientRepository = patientRepository;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.missingIds = missingIds;
     }
 
     public Page<PatientResponseDTO> getPatients(Pageable pageable) {
@@ -43,8 +51,7 @@ public class PatientService {
 
     public PatientResponseDTO getPatientById(UUID id) {
         log.info("Fetching patient with ID: {}", id);
-        Patient patient = patientRepository.findById(id)
-                .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+        Patient patient = findExisting(id);
         log.info("Found patient: {}", patient.getName());
         return PatientMapper.toDTO(patient);
     }
@@ -68,31 +75,37 @@ public class PatientService {
     }
 
     public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
+        return createPatientWithDuplicateCheck(patientRequestDTO).patient();
+    }
+
+    public CreatedPatient createPatientWithDuplicateCheck(PatientRequestDTO patientRequestDTO) {
         log.info("Creating new patient with email: {}", patientRequestDTO.getEmail());
         if (patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
-            log.warn("Attempt to create patient with existing email: {}", patientRequestDTO.getEmail());
-            throw new EmailAlreadyExistException("a patient with this email" + "already Exist" +
-                    patientRequestDTO.getEmail());
+            log.debug("Attempt to create patient with existing email: {}", patientRequestDTO.getEmail());
+            throw new EmailAlreadyExistException(patientRequestDTO.getEmail());
         }
+        // checked before the insert, otherwise the new patient would match itself
+        List<DuplicateCandidateDTO> duplicates = duplicateDetectionService.findPossibleDuplicates(patientRequestDTO);
 
         // patient service
         // we get as DTO object to serviuce
         // it should be convereted to model entity before getting data  into database
 
         Patient newpatient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
+        duplicateDetectionService.index(newpatient);
+        missingIds.markPresent(newpatient.getId());
         log.info("Successfully created patient with ID: {}", newpatient.getId());
-        return PatientMapper.toDTO(newpatient);
+        return new CreatedPatient(PatientMapper.toDTO(newpatient), duplicates);
     }
 
     public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO) {
         log.info("Updating patient with ID: {}", id);
-        Patient patient = patientRepository.findById(id).orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+        Patient patient = findExisting(id);
 
 
         if (patientRepository.existsByEmailAndIdNot(patientRequestDTO.getEmail(), id)) {
-            log.warn("Attempt to update patient with existing email: {}", patientRequestDTO.getEmail());
-            throw new EmailAlreadyExistException("a patient with this email" + "already Exist" +
-                    patientRequestDTO.getEmail());
+            log.debug("Attempt to update patient with existing email: {}", patientRequestDTO.getEmail());
+            throw new EmailAlreadyExistException(patientRequestDTO.getEmail());
         }
 
         patient.setName(patientRequestDTO.getName());
@@ -101,6 +114,8 @@ public class PatientService {
         patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
 
         Patient updatedpatient = patientRepository.save(patient);
+        duplicateDetectionService.index(updatedpatient);
+        missingIds.markPresent(updatedpatient.getId());
         log.info("Successfully updated patient with ID: {}", updatedpatient.getId());
         return PatientMapper.toDTO(updatedpatient);
 
@@ -109,11 +124,30 @@ public class PatientService {
 
     public void deletePatient(UUID id) {
         log.info("Deleting patient with ID: {}", id);
+        if (missingIds.isMissing(id)) {
+            throw new PatientNotFoundException(id);
+        }
         if (!patientRepository.existsById(id)) {
-            log.warn("Attempt to delete non-existent patient with ID: {}", id);
-            throw new PatientNotFoundException("Patient not found with ID: " + id);
+            log.debug("Attempt to delete non-existent patient with ID: {}", id);
+            missingIds.markMissing(id);
+            throw new PatientNotFoundException(id);
         }
         patientRepository.deleteById(id);
+        duplicateDetectionService.remove(id);
+        missingIds.markMissing(id);
         log.info("Successfully deleted patient with ID: {}", id);
     }
+
+    // not-found is answered from the missing id cache when the same id was just looked up
+    private Patient findExisting(UUID id) {
+        if (missingIds.isMissing(id)) {
+            throw new PatientNotFoundException(id);
+        }
+        Optional<Patient> patient = patientRepository.findById(id);
+        if (patient.isEmpty()) {
+            missingIds.markMissing(id);
+            throw new PatientNotFoundException(id);
+        }
+        return patient.get();
+    }
 }
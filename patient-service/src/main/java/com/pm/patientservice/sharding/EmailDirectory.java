@@ -0,0 +1,44 @@
+package com.pm.patientservice.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.UUID;
+
+// global email -> patient lookup on the directory shard. with patients spread over shards
+// no single unique index sees every email, so uniqueness is enforced by this primary key
+public class EmailDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailDirectory(DataSource directory) {
+        this.jdbcTemplate = new JdbcTemplate(directory);
+    }
+
+    public Optional<UUID> findPatientId(String email) {
+        return jdbcTemplate.query("SELECT patient_id FROM patient_email WHERE email = ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), email).stream().findFirst();
+    }
+
+    public Optional<String> findEmail(UUID patientId) {
+        return jdbcTemplate.query("SELECT email FROM patient_email WHERE patient_id = ?",
+                (rs, rowNum) -> rs.getString(1), patientId).stream().findFirst();
+    }
+
+    // false if another patient already has this email
+    public boolean claim(String email, UUID patientId, int shard) {
+        try {
+            jdbcTemplate.update("INSERT INTO patient_email (email, patient_id, shard) VALUES (?, ?, ?)",
+                    email, patientId, shard);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(String email, UUID patientId) {
+        jdbcTemplate.update("DELETE FROM patient_email WHERE email = ? AND patient_id = ?", email, patientId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.pm.patientservice.sharding;
+
+import java.util.UUID;
+
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    // the low half of a UUID is random for both v4 and time-ordered ids, so it spreads
+    // evenly and never depends on when the patient was created
+    public int shardFor(UUID id) {
+        return (int) Math.floorMod(id.getLeastSignificantBits(), (long) shardCount);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
@@ -0,0 +1,337 @@
+package com.pm.patientservice.sharding;
+
+import com.pm.patientservice.exceptions.EmailAlreadyExistException;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.id.UuidV7;
+import com.pm.patientservice.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+// PatientRepository in sharding mode. single patient calls run on the shard their id
+// hashes to, email checks go to the directory, and list/search/count calls run on every
+// shard in parallel and are merged. methods not listed here are rejected rather than
+// silently hitting one shard.
+// calls must not be made inside a transaction: ShardContext only picks the DataSource when
+// a connection is taken, and an outer transaction has already bound one, so every call in
+// it would run on that shard. such calls fail with InvalidDataAccessApiUsageException instead
+public class ShardedPatientRepository implements InvocationHandler {
+    private static final Logger log = LoggerFactory.getLogger(ShardedPatientRepository.class);
+
+    // page size of the findTop10000 keyset queries in PatientRepository
+    private static final int KEYSET_PAGE_SIZE = 10_000;
+
+    // cross-shard ordering is done in memory, so only by the id: UUIDs compare as unsigned
+    // bytes in the database and here. text would need the database collation, which
+    // String.compareTo does not follow. the date columns would be safe too, but their
+    // attribute names (date_of_birth) cannot be used in a Spring Data Sort at all
+    private static final Set<String> MERGE_SORT_PROPERTIES = Set.of("id");
+
+    private final PatientRepository delegate;
+    private final ShardRouter router;
+    private final EmailDirectory directory;
+    private final ExecutorService fanOutExecutor;
+    private final long maxFanOutOffset;
+    private final Limit shardKeysetLimit;
+
+    private ShardedPatientRepository(PatientRepository delegate, ShardRouter router, EmailDirectory directory,
+                                     ExecutorService fanOutExecutor, long maxFanOutOffset, int keysetPageSize) {
+        this.delegate = delegate;
+        this.router = router;
+        this.directory = directory;
+        this.fanOutExecutor = fanOutExecutor;
+        this.maxFanOutOffset = maxFanOutOffset;
+        this.shardKeysetLimit = Limit.of(keysetPageSize);
+    }
+
+    public static PatientRepository create(PatientRepository delegate, ShardRouter router, EmailDirectory directory,
+                                           ExecutorService fanOutExecutor, long maxFanOutOffset,
+                                           int keysetPageSize) {
+        return (PatientRepository) Proxy.newProxyInstance(PatientRepository.class.getClassLoader(),
+                new Class<?>[]{PatientRepository.class},
+                new ShardedPatientRepository(delegate, router, directory, fanOutExecutor, maxFanOutOffset,
+                        keysetPageSize));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        int arity = args == null ? 0 : args.length;
+        if (method.getDeclaringClass() != Object.class && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new InvalidDataAccessApiUsageException("PatientRepository." + method.getName()
+                    + " called inside a transaction, which in sharding mode would run on the shard the"
+                    + " transaction's connection came from");
+        }
+        switch (method.getName()) {
+            case "findById", "existsById", "getReferenceById", "getById" -> {
+                return onShard(router.shardFor((UUID) args[0]), method, args);
+            }
+            case "save" -> {
+                return save((Patient) args[0]);
+            }
+            case "deleteById" -> {
+                delete((UUID) args[0]);
+                return null;
+            }
+            case "delete" -> {
+                delete(((Patient) args[0]).getId());
+                return null;
+            }
+            case "existsByEmail" -> {
+                return directory.findPatientId((String) args[0]).isPresent();
+            }
+            case "existsByEmailAndIdNot" -> {
+                return directory.findPatientId((String) args[0]).filter(id -> !id.equals(args[1])).isPresent();
+            }
+            case "count" -> {
+                if (arity == 0) {
+                    return fanOut(shard -> delegate.count()).stream().mapToLong(Long::longValue).sum();
+                }
+            }
+            case "findAll" -> {
+                if (arity == 0) {
+                    return concat(fanOut(shard -> delegate.findAll()));
+                }
+                if (args[0] instanceof Pageable pageable) {
+                    return findAll(pageable);
+                }
+                if (args[0] instanceof Sort sort) {
+                    Comparator<Patient> order = comparator(sort);
+                    List<Patient> merged = concat(fanOut(shard -> delegate.findAll(sort)));
+                    merged.sort(order);
+                    return merged;
+                }
+            }
+            case "findTop10000ByOrderById" -> {
+                return keysetPage(null);
+            }
+            case "findTop10000ByIdGreaterThanOrderById" -> {
+                return keysetPage((UUID) args[0]);
+            }
+            case "findByNameContainingIgnoreCase", "findByEmailContainingIgnoreCase",
+                    "findByAddressContainingIgnoreCase" -> {
+                return concat(fanOut(shard -> invokeDelegate(method, args)));
+            }
+            case "toString" -> {
+                return "ShardedPatientRepository" + "[" + router.getShardCount() + " shards]";
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            default -> {
+            }
+        }
+        throw new UnsupportedOperationException("PatientRepository." + method.getName()
+                + " is not supported in sharding mode");
+    }
+
+    private Object onShard(int shard, Method method, Object[] args) {
+        return ShardContext.callOn(shard, () -> invokeDelegate(method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T invokeDelegate(Method method, Object[] args) {
+        try {
+            return (T) method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the directory row is claimed first so two shards can never both accept the same email.
+    // the two writes are not atomic: a failed shard write releases the claim again
+    private Patient save(Patient patient) {
+        if (patient.getId() == null) {
+            patient.setId(UuidV7.next());
+        }
+        UUID id = patient.getId();
+        int shard = router.shardFor(id);
+
+        String previousEmail = patient.isNew() ? null : directory.findEmail(id).orElse(null);
+        boolean emailChanged = !patient.getEmail().equals(previousEmail);
+        if (emailChanged && !directory.claim(patient.getEmail(), id, shard)) {
+            throw new EmailAlreadyExistException(patient.getEmail());
+        }
+
+        Patient saved;
+        try {
+            saved = ShardContext.callOn(shard, () -> delegate.save(patient));
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                directory.release(patient.getEmail(), id);
+            }
+            throw e;
+        }
+        if (emailChanged && previousEmail != null) {
+            directory.release(previousEmail, id);
+        }
+        return saved;
+    }
+
+    private void delete(UUID id) {
+        int shard = router.shardFor(id);
+        Optional<String> email = directory.findEmail(id);
+        ShardContext.callOn(shard, () -> {
+            delegate.deleteById(id);
+            return null;
+        });
+        email.ifPresent(e -> directory.release(e, id));
+    }
+
+    // one keyset page of sharding.keyset-page-size rows per shard, all starting after the
+    // same id. rows up to the lowest last id among the full pages are complete on every shard
+    // and are kept, the next round starts after that cut. rounds repeat until
+    // KEYSET_PAGE_SIZE rows are collected or no shard has a full page left, so callers only
+    // see a short page at the end of the scan. usually returns more than KEYSET_PAGE_SIZE rows
+    private List<Patient> keysetPage(UUID after) {
+        Comparator<Patient> byId = comparator(Sort.by("id"));
+        List<Patient> result = new ArrayList<>();
+        UUID start = after;
+        while (true) {
+            UUID from = start;
+            List<List<Patient>> pages = fanOut(shard -> from == null
+                    ? delegate.findAllByOrderById(shardKeysetLimit)
+                    : delegate.findByIdGreaterThanOrderById(from, shardKeysetLimit));
+            Patient cut = null;
+            for (List<Patient> page : pages) {
+                if (page.size() >= shardKeysetLimit.max()) {
+                    Patient last = page.get(page.size() - 1);
+                    if (cut == null || byId.compare(last, cut) < 0) {
+                        cut = last;
+                    }
+                }
+            }
+            List<Patient> merged = concat(pages);
+            if (cut != null) {
+                Patient limit = cut;
+                merged.removeIf(patient -> byId.compare(patient, limit) > 0);
+            }
+            merged.sort(byId);
+            result.addAll(merged);
+            if (cut == null || result.size() >= KEYSET_PAGE_SIZE) {
+                return result;
+            }
+            start = cut.getId();
+        }
+    }
+
+    // each shard returns its first offset + size rows in the requested order, the merge
+    // keeps the global order and cuts the requested page out of it. that costs
+    // shards * (offset + size) rows, so offsets past sharding.max-fan-out-offset are
+    // rejected; full scans page by id with findTop10000ByIdGreaterThanOrderById instead
+    private Page<Patient> findAll(Pageable pageable) {
+        if (pageable.getOffset() > maxFanOutOffset) {
+            throw new InvalidDataAccessApiUsageException("Page offset " + pageable.getOffset()
+                    + " is beyond sharding.max-fan-out-offset=" + maxFanOutOffset);
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Comparator<Patient> order = comparator(sort);
+        int limit = (int) (pageable.getOffset() + pageable.getPageSize());
+        PageRequest perShard = PageRequest.of(0, limit, sort);
+
+        List<Page<Patient>> pages = fanOut(shard -> delegate.findAll(perShard));
+        long total = 0;
+        List<Patient> merged = new ArrayList<>();
+        for (Page<Patient> page : pages) {
+            total += page.getTotalElements();
+            merged.addAll(page.getContent());
+        }
+        merged.sort(order);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(limit, merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    private <T> List<T> fanOut(IntFunction<T> query) {
+        List<Future<T>> futures = new ArrayList<>(router.getShardCount());
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(fanOutExecutor.submit(() -> ShardContext.callOn(target, () -> query.apply(target))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for shard query", e);
+            } catch (ExecutionException e) {
+                log.error("Shard query failed", e.getCause());
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static List<Patient> concat(List<? extends Iterable<Patient>> parts) {
+        List<Patient> merged = new ArrayList<>();
+        parts.forEach(part -> part.forEach(merged::add));
+        return merged;
+    }
+
+    // by JPA attribute, UUIDs compared as unsigned bytes like PostgreSQL and H2 do
+    private static Comparator<Patient> comparator(Sort sort) {
+        Comparator<Patient> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            if (!MERGE_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidDataAccessApiUsageException("Sorting by " + order.getProperty()
+                        + " is not supported across shards, use one of " + MERGE_SORT_PROPERTIES);
+            }
+            Field field = ReflectionUtils.findField(Patient.class, order.getProperty());
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown sort property " + order.getProperty());
+            }
+            ReflectionUtils.makeAccessible(field);
+            Comparator<Patient> byField = (a, b) -> compareValues(ReflectionUtils.getField(field, a),
+                    ReflectionUtils.getField(field, b));
+            comparator = comparator.thenComparing(order.isAscending() ? byField : byField.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        if (a instanceof UUID ua && b instanceof UUID ub) {
+            int high = Long.compareUnsigned(ua.getMostSignificantBits(), ub.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(ua.getLeastSignificantBits(), ub.getLeastSignificantBits());
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+}
@@ -0,0 +1,90 @@
+package com.pm.patientservice.sharding;
+
+import com.pm.patientservice.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// multi-datasource sharding. every shard gets the patient table, shard 0 additionally
+// the global lookup tables; Hibernate's ddl-auto and spring.sql.init only see the default
+// shard so they are turned off in this mode (see application-sharding.properties)
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true needs at least one sharding.shards[n].url");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+
+            ResourceDatabasePopulator schema = new ResourceDatabasePopulator(
+                    new ClassPathResource("db/sharding/shard-schema.sql"));
+            if (i == ShardRoutingDataSource.DIRECTORY_SHARD) {
+                schema.addScript(new ClassPathResource("db/sharding/directory-schema.sql"));
+            }
+            schema.execute(dataSource);
+            shards.add(dataSource);
+        }
+        log.info("Patient sharding enabled over {} shards", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardRoutingDataSource dataSource) {
+        return new ShardRouter(dataSource.getShardCount());
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(ShardRoutingDataSource dataSource) {
+        return new EmailDirectory(dataSource.getShard(ShardRoutingDataSource.DIRECTORY_SHARD));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardFanOutExecutor(ShardingProperties properties) {
+        int threads = properties.getFanOutThreads() > 0
+                ? properties.getFanOutThreads() : properties.getShards().size() * 4;
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @Primary
+    public PatientRepository shardedPatientRepository(@Qualifier("patientRepository") PatientRepository patientRepository,
+                                                      ShardRouter shardRouter, EmailDirectory emailDirectory,
+                                                      ExecutorService shardFanOutExecutor,
+                                                      ShardingProperties properties) {
+        return ShardedPatientRepository.create(patientRepository, shardRouter, emailDirectory, shardFanOutExecutor,
+                properties.getMaxFanOutOffset(), properties.getKeysetPageSize());
+    }
+}
@@ -0,0 +1,94 @@
+package com.pm.patientservice.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // shard 0 also holds the global tables (patient_email, idempotency_record)
+    private List<Shard> shards = new ArrayList<>();
+
+    // threads running cross-shard list and search queries, 0 means 4 per shard
+    private int fanOutThreads = 0;
+
+    // paged lists read offset + size rows from every shard, deeper pages are rejected
+    private long maxFanOutOffset = 10_000;
+
+    // rows read from every shard per round of a cross-shard keyset page
+    private int keysetPageSize = 10_000;
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    public long getMaxFanOutOffset() {
+        return maxFanOutOffset;
+    }
+
+    public void setMaxFanOutOffset(long maxFanOutOffset) {
+        this.maxFanOutOffset = maxFanOutOffset;
+    }
+
+    public int getKeysetPageSize() {
+        return keysetPageSize;
+    }
+
+    public void setKeysetPageSize(int keysetPageSize) {
+        this.keysetPageSize = keysetPageSize;
+    }
+}
@@ -0,0 +1 @@
+-- intentionally empty: the partitioned profile starts without the demo patients in data.sql
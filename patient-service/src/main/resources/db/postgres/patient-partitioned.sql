@@ -0,0 +1,109 @@
+-- Hash partitioned patient table for PostgreSQL (11+), used by the "partitioned" profile.
+-- Statements are separated by @@ because the trigger function body contains semicolons.
+--
+-- A unique index on a partitioned table must include the partition key, so UNIQUE (email)
+-- is not possible here. Global email uniqueness moves to patient_email, kept in sync by
+-- the trigger below; each partition still gets a plain email index for lookups.
+--
+-- 16 partitions: changing the modulus later means creating a new table and moving rows.
+
+CREATE TABLE IF NOT EXISTS patient
+(
+    id              UUID         NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    address         VARCHAR(255) NOT NULL,
+    date_of_birth   DATE         NOT NULL,
+    registered_date DATE         NOT NULL,
+    PRIMARY KEY (id)
+) PARTITION BY HASH (id)
+@@
+
+CREATE TABLE IF NOT EXISTS patient_p0 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 0)
+@@
+CREATE TABLE IF NOT EXISTS patient_p1 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 1)
+@@
+CREATE TABLE IF NOT EXISTS patient_p2 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 2)
+@@
+CREATE TABLE IF NOT EXISTS patient_p3 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 3)
+@@
+CREATE TABLE IF NOT EXISTS patient_p4 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 4)
+@@
+CREATE TABLE IF NOT EXISTS patient_p5 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 5)
+@@
+CREATE TABLE IF NOT EXISTS patient_p6 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 6)
+@@
+CREATE TABLE IF NOT EXISTS patient_p7 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 7)
+@@
+CREATE TABLE IF NOT EXISTS patient_p8 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 8)
+@@
+CREATE TABLE IF NOT EXISTS patient_p9 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 9)
+@@
+CREATE TABLE IF NOT EXISTS patient_p10 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 10)
+@@
+CREATE TABLE IF NOT EXISTS patient_p11 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 11)
+@@
+CREATE TABLE IF NOT EXISTS patient_p12 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 12)
+@@
+CREATE TABLE IF NOT EXISTS patient_p13 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 13)
+@@
+CREATE TABLE IF NOT EXISTS patient_p14 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 14)
+@@
+CREATE TABLE IF NOT EXISTS patient_p15 PARTITION OF patient FOR VALUES WITH (MODULUS 16, REMAINDER 15)
+@@
+
+-- created on the parent, PostgreSQL builds one per partition
+CREATE INDEX IF NOT EXISTS idx_patient_email ON patient (email)
+@@
+
+CREATE TABLE IF NOT EXISTS patient_email
+(
+    email      VARCHAR(255) PRIMARY KEY,
+    patient_id UUID UNIQUE NOT NULL
+)
+@@
+
+-- a duplicate email fails the patient insert/update with a unique violation, the same
+-- error the unpartitioned table's UNIQUE (email) raises
+CREATE OR REPLACE FUNCTION patient_email_sync() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM patient_email WHERE patient_id = OLD.id;
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        IF NEW.email = OLD.email THEN
+            RETURN NEW;
+        END IF;
+        DELETE FROM patient_email WHERE patient_id = OLD.id;
+    END IF;
+    INSERT INTO patient_email (email, patient_id) VALUES (NEW.email, NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql
+@@
+
+DROP TRIGGER IF EXISTS patient_email_sync ON patient
+@@
+
+CREATE TRIGGER patient_email_sync
+    AFTER INSERT OR UPDATE OF email OR DELETE ON patient
+    FOR EACH ROW EXECUTE FUNCTION patient_email_sync()
+@@
+
+-- ddl-auto is off under this profile, so the idempotency.store=jdbc table is created here too
+CREATE TABLE IF NOT EXISTS idempotency_record
+(
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    fingerprint     VARCHAR(64)              NOT NULL,
+    status          INT                      NOT NULL,
+    content_type    VARCHAR(255),
+    headers         VARCHAR(8192),
+    body            BYTEA,
+    expires_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    pending         BOOLEAN                  NOT NULL
+)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_expires_at ON idempotency_record (expires_at)
+@@
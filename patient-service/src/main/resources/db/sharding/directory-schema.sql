@@ -0,0 +1,24 @@
+-- global tables, only on the directory shard (shard 0)
+CREATE TABLE IF NOT EXISTS patient_email
+(
+    email      VARCHAR(255) PRIMARY KEY,
+    patient_id UUID        NOT NULL,
+    shard      INT         NOT NULL
+);
+
+-- not unique: an email change claims the new row before the old one is released
+CREATE INDEX IF NOT EXISTS idx_patient_email_patient_id ON patient_email (patient_id);
+
+CREATE TABLE IF NOT EXISTS idempotency_record
+(
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    fingerprint     VARCHAR(64)              NOT NULL,
+    status          INT                      NOT NULL,
+    content_type    VARCHAR(255),
+    headers         VARCHAR(8192),
+    body            BYTEA,
+    expires_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    pending         BOOLEAN                  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_expires_at ON idempotency_record (expires_at);
@@ -0,0 +1,142 @@
+package com.pm.patientservice;
+
+import com.pm.patientservice.exceptions.PatientNotFoundException;
+import com.pm.patientservice.service.MissingIdCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.pm.patientservice.PatientRequests.jsonHeaders;
+import static com.pm.patientservice.PatientRequests.patientJson;
+import static com.pm.patientservice.PatientRequests.patientsUrl;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PatientErrorResponseTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MissingIdCache missingIds;
+
+    @LocalServerPort
+    private int port;
+
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = patientsUrl(port);
+    }
+
+    private ResponseEntity<String> post(String body) {
+        return restTemplate.postForEntity(baseUrl, new HttpEntity<>(body, jsonHeaders()), String.class);
+    }
+
+    @Test
+    void testUnknownIdIsNotFoundProblem() {
+        UUID unknownId = UUID.randomUUID();
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/" + unknownId, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        assertTrue(response.getBody().contains("\"status\":404"));
+        assertTrue(response.getBody().contains("\"Message\":\"Patient Not Found\""));
+        assertTrue(missingIds.isMissing(unknownId));
+
+        // answered from the cache the second time, same response
+        ResponseEntity<String> again = restTemplate.getForEntity(baseUrl + "/" + unknownId, String.class);
+        assertEquals(HttpStatus.NOT_FOUND, again.getStatusCode());
+        assertEquals(response.getBody(), again.getBody());
+    }
+
+    @Test
+    void testUpdateAndDeleteOfUnknownIdAreNotFound() {
+        UUID unknownId = UUID.randomUUID();
+
+        ResponseEntity<String> update = restTemplate.exchange(baseUrl + "/" + unknownId, HttpMethod.PUT,
+                new HttpEntity<>(patientJson("Error Patient", "nobody@example.com"), jsonHeaders()), String.class);
+        ResponseEntity<String> delete = restTemplate.exchange(baseUrl + "/" + unknownId, HttpMethod.DELETE,
+                null, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, update.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, delete.getStatusCode());
+    }
+
+    @Test
+    void testDuplicateEmailIsConflict() {
+        assertEquals(HttpStatus.OK, post(patientJson("Error Patient", "conflict@example.com")).getStatusCode());
+
+        ResponseEntity<String> duplicate = post(patientJson("Error Patient", "conflict@example.com"));
+
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+        assertTrue(duplicate.getBody().contains("\"Message\":\"Email Already Exist\""));
+    }
+
+    @Test
+    void testValidationErrorsListFields() {
+        ResponseEntity<String> first = post("{\"email\": \"not-an-email\"}");
+        ResponseEntity<String> second = post("{\"email\": \"not-an-email\"}");
+
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertTrue(first.getBody().contains("\"email\":\"Email should be valid\""));
+        assertTrue(first.getBody().contains("\"name\""));
+        assertEquals(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void testMalformedIdAndBodyAreBadRequest() {
+        ResponseEntity<String> badId = restTemplate.getForEntity(baseUrl + "/not-a-uuid", String.class);
+        ResponseEntity<String> badBody = post("{\"name\": ");
+
+        assertEquals(HttpStatus.BAD_REQUEST, badId.getStatusCode());
+        assertTrue(badId.getBody().contains("Invalid Request Parameter"));
+        assertEquals(HttpStatus.BAD_REQUEST, badBody.getStatusCode());
+        assertTrue(badBody.getBody().contains("Malformed Request Body"));
+    }
+
+    @Test
+    void testNonPositiveScanLimitIsBadRequest() {
+        ResponseEntity<String> zero = restTemplate.getForEntity(baseUrl + "/duplicates?limit=0", String.class);
+        ResponseEntity<String> negative = restTemplate.getForEntity(baseUrl + "/duplicates?limit=-1", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, zero.getStatusCode());
+        assertTrue(zero.getBody().contains("Invalid Request Parameter"));
+        assertEquals(HttpStatus.BAD_REQUEST, negative.getStatusCode());
+    }
+
+    @Test
+    void testCreatedPatientIsNoLongerMissing() {
+        ResponseEntity<String> created = post(patientJson("Error Patient", "found-later@example.com"));
+        UUID id = UUID.fromString(created.getBody().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1"));
+        missingIds.markMissing(id);
+
+        // a create for the same id (assigned ids, sharded saves) clears the entry
+        missingIds.markPresent(id);
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(baseUrl + "/" + id, String.class).getStatusCode());
+    }
+
+    @Test
+    void testDomainExceptionsHaveNoStackTrace() {
+        PatientNotFoundException ex = new PatientNotFoundException(UUID.randomUUID());
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertTrue(ex.getMessage().contains(ex.getId().toString()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.pm.patientservice;
+
+import com.pm.patientservice.controller.PatientController;
+import com.pm.patientservice.idempotency.IdempotencyFilter;
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.pm.patientservice.PatientRequests.jsonHeaders;
+import static com.pm.patientservice.PatientRequests.patientJson;
+import static com.pm.patientservice.PatientRequests.patientsUrl;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PatientIdempotencyTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = patientsUrl(port);
+    }
+
+    private ResponseEntity<String> post(String key, String body) {
+        HttpHeaders headers = jsonHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        return restTemplate.postForEntity(baseUrl, new HttpEntity<>(body, headers), String.class);
+    }
+
+    @Test
+    void testRetryReplaysOriginalResponse() {
+        String body = patientJson("Retry Patient", "retry@example.com");
+        double replayedBefore = replayCount();
+
+        ResponseEntity<String> first = post("retry-key-1", body);
+        ResponseEntity<String> retry = post("retry-key-1", body);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(replayedBefore + 1, replayCount());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() {
+        post("reuse-key", patientJson("Reuse Patient", "reuse@example.com"));
+        ResponseEntity<String> reused = post("reuse-key", patientJson("Other Patient", "other@example.com"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+        assertFalse(patientRepository.existsByEmail("other@example.com"));
+    }
+
+    @Test
+    void testConcurrentDuplicatesCreateOnePatient() {
+        String body = patientJson("Concurrent Patient", "concurrent-retry@example.com");
+        List<CompletableFuture<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> post("concurrent-key", body)));
+        }
+
+        List<ResponseEntity<String>> responses = futures.stream().map(CompletableFuture::join).toList();
+        Set<String> bodies = responses.stream().map(ResponseEntity::getBody).collect(Collectors.toSet());
+
+        assertTrue(responses.stream().allMatch(r -> r.getStatusCode() == HttpStatus.OK));
+        assertEquals(1, bodies.size());
+        assertEquals(1, patientRepository.findByEmailContainingIgnoreCase("concurrent-retry@example.com").size());
+    }
+
+    @Test
+    void testUpdateWithKeyIsReplayed() {
+        post("create-before-update", patientJson("To Update", "to-update@example.com"));
+        String id = patientRepository.findByEmailContainingIgnoreCase("to-update@example.com").get(0)
+                .getId().toString();
+        HttpHeaders headers = jsonHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "update-key");
+        HttpEntity<String> entity = new HttpEntity<>(patientJson("Updated Retry", "updated-retry@example.com"), headers);
+
+        ResponseEntity<String> first = restTemplate.exchange(baseUrl + "/" + id, HttpMethod.PUT, entity, String.class);
+        ResponseEntity<String> retry = restTemplate.exchange(baseUrl + "/" + id, HttpMethod.PUT, entity, String.class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testReplayKeepsResponseHeaders() {
+        post("original-of-duplicate", patientJson("Header Replay Patient", "header-replay@example.com"));
+        String body = patientJson("Header Replay Patient", "header-replay-2@example.com");
+
+        ResponseEntity<String> first = post("possible-duplicate-key", body);
+        ResponseEntity<String> retry = post("possible-duplicate-key", body);
+
+        List<String> duplicates = first.getHeaders().get(PatientController.POSSIBLE_DUPLICATES_HEADER);
+        assertNotNull(duplicates);
+        assertEquals(duplicates, retry.getHeaders().get(PatientController.POSSIBLE_DUPLICATES_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, retry.getHeaders().get(HttpHeaders.CONTENT_TYPE).size());
+    }
+
+    private double replayCount() {
+        return meterRegistry.counter("patient.idempotency.requests", "outcome", "replayed").count();
+    }
+}
@@ -0,0 +1,33 @@
+package com.pm.patientservice;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+// request bodies and headers shared by the tests that drive /patients over HTTP
+public final class PatientRequests {
+
+    private PatientRequests() {
+    }
+
+    public static String patientsUrl(int port) {
+        return "http://localhost:" + port + "/patients";
+    }
+
+    public static String patientJson(String name, String email) {
+        return """
+            {
+                "name": "%s",
+                "email": "%s",
+                "address": "123 Test St",
+                "dateOfBirth": "1990-01-01",
+                "registeredDate": "2024-01-01"
+            }
+            """.formatted(name, email);
+    }
+
+    public static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
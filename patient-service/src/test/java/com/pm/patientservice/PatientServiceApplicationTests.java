@@ -14,6 +14,7 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -35,6 +36,9 @@ class PatientServiceApplicationTests {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @LocalServerPort
     private int port;
 
@@ -64,10 +68,30 @@ class PatientServiceApplicationTests {
 
         assertNotNull(response);
         assertNotNull(response.getId());
+        assertEquals(7, UUID.fromString(response.getId()).version());
         assertEquals("Test Patient", response.getName());
         assertEquals("test@example.com", response.getEmail());
     }
 
+    @Test
+    void testPatientWithRandomIdStillWorks() {
+        // patients created before time-ordered ids have random v4 ids
+        UUID legacyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patient (id, name, email, address, date_of_birth, registered_date) "
+                + "VALUES (?, 'Legacy Patient', 'legacy@example.com', '1 Old St', DATE '1970-01-01', DATE '2020-01-01')",
+                legacyId);
+
+        PatientRequestDTO update = new PatientRequestDTO();
+        update.setName("Legacy Patient Updated");
+        update.setEmail("legacy@example.com");
+        update.setAddress("2 Old St");
+        update.setDateOfBirth("1970-01-01");
+        PatientResponseDTO updated = patientService.updatePatient(legacyId, update);
+
+        assertEquals(legacyId.toString(), updated.getId());
+        assertEquals("Legacy Patient Updated", patientService.getPatientById(legacyId).getName());
+    }
+
     @Test
     void testCreatePatientWithDuplicateEmail() {
         PatientRequestDTO request1 = new PatientRequestDTO();
@@ -0,0 +1,175 @@
+package com.pm.patientservice;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exceptions.EmailAlreadyExistException;
+import com.pm.patientservice.exceptions.PatientNotFoundException;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.service.PatientService;
+import com.pm.patientservice.sharding.ShardRouter;
+import com.pm.patientservice.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// small keyset pages so full scans go through several cuts across shards
+@SpringBootTest(properties = "sharding.keyset-page-size=2")
+@ActiveProfiles("sharding")
+class PatientShardingTests {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final Comparator<UUID> UNSIGNED = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
+    private static PatientRequestDTO request(String name, String email) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("1 Shard St");
+        request.setDateOfBirth("1990-01-01");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+
+    private int countOnShard(int shard, UUID id) {
+        return new JdbcTemplate(dataSource.getShard(shard))
+                .queryForObject("SELECT COUNT(*) FROM patient WHERE id = ?", Integer.class, id);
+    }
+
+    @Test
+    void testPatientsAreStoredOnTheirShard() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(UUID.fromString(patientService.createPatient(
+                    request("Routed " + i, "routed" + i + "@example.com")).getId()));
+        }
+
+        int[] perShard = new int[dataSource.getShardCount()];
+        for (UUID id : ids) {
+            int shard = shardRouter.shardFor(id);
+            for (int other = 0; other < dataSource.getShardCount(); other++) {
+                assertEquals(other == shard ? 1 : 0, countOnShard(other, id));
+            }
+            perShard[shard]++;
+            assertEquals(id.toString(), patientService.getPatientById(id).getId());
+        }
+        assertTrue(Arrays.stream(perShard).filter(n -> n > 0).count() > 1);
+    }
+
+    @Test
+    void testEmailIsUniqueAcrossShards() {
+        patientService.createPatient(request("First Owner", "global@example.com"));
+        // whichever shard the second id lands on, the directory rejects the email
+        for (int i = 0; i < 5; i++) {
+            int attempt = i;
+            assertThrows(EmailAlreadyExistException.class,
+                    () -> patientService.createPatient(request("Second Owner " + attempt, "global@example.com")));
+        }
+    }
+
+    @Test
+    void testUpdateAndDeleteReleaseTheOldEmail() {
+        PatientResponseDTO created = patientService.createPatient(request("Mover", "before-move@example.com"));
+        UUID id = UUID.fromString(created.getId());
+
+        patientService.updatePatient(id, request("Mover", "after-move@example.com"));
+        assertFalse(patientRepository.existsByEmail("before-move@example.com"));
+        assertTrue(patientRepository.existsByEmail("after-move@example.com"));
+
+        patientService.deletePatient(id);
+        assertFalse(patientRepository.existsByEmail("after-move@example.com"));
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientById(id));
+    }
+
+    @Test
+    void testSearchAndPagingFanOutAcrossShards() {
+        for (int i = 0; i < 12; i++) {
+            patientService.createPatient(request("Fan Out " + i, "fanout" + i + "@example.com"));
+        }
+
+        List<PatientResponseDTO> found = patientService.searchPatients("Fan Out", null, null);
+        assertEquals(12, found.size());
+
+        long total = patientRepository.count();
+        List<UUID> pagedIds = new ArrayList<>();
+        for (int page = 0; page * 5 < total; page++) {
+            Page<PatientResponseDTO> result = patientService.getPatients(
+                    PageRequest.of(page, 5, Sort.by(Sort.Direction.DESC, "id")));
+            assertEquals(total, result.getTotalElements());
+            result.forEach(p -> pagedIds.add(UUID.fromString(p.getId())));
+        }
+        assertEquals(total, pagedIds.size());
+        assertEquals(total, pagedIds.stream().distinct().count());
+
+        List<UUID> ids = patientService.getPatients(PageRequest.of(0, (int) total))
+                .map(p -> UUID.fromString(p.getId())).getContent();
+        assertEquals(ids.stream().sorted(UNSIGNED).toList(), ids);
+        List<UUID> keyset = patientRepository.findTop10000ByOrderById().stream().map(Patient::getId).toList();
+        assertEquals(ids, keyset);
+    }
+
+    @Test
+    void testKeysetPagesStitchShardsTogetherInIdOrder() {
+        for (int i = 0; i < 15; i++) {
+            patientService.createPatient(request("Keyset " + i, "keyset" + i + "@example.com"));
+        }
+
+        List<UUID> all = patientRepository.findAll(Sort.by("id")).stream().map(Patient::getId).toList();
+        List<UUID> keyset = patientRepository.findTop10000ByOrderById().stream().map(Patient::getId).toList();
+        assertEquals(all, keyset);
+
+        UUID middle = all.get(all.size() / 2);
+        List<UUID> after = patientRepository.findTop10000ByIdGreaterThanOrderById(middle).stream()
+                .map(Patient::getId).toList();
+        assertEquals(all.subList(all.size() / 2 + 1, all.size()), after);
+    }
+
+    @Test
+    void testUnsupportedFanOutQueriesAreRejected() {
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> patientService.getPatients(PageRequest.of(0, 5, Sort.by("email"))));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> patientRepository.findAll(Sort.by("email")));
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> patientService.getPatients(PageRequest.of(100_000, 5)));
+    }
+
+    @Test
+    void testRepositoryCallsInsideATransactionFailFast() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> transaction.executeWithoutResult(status -> patientRepository.findById(UUID.randomUUID())));
+    }
+}
@@ -0,0 +1,138 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.dedupe.BlockingKeys;
+import com.pm.patientservice.dedupe.DuplicateIndex;
+import com.pm.patientservice.dedupe.DuplicateScorer;
+import com.pm.patientservice.dedupe.PatientFingerprint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// blocking index build, per-create check latency and full-table scan over synthetic
+// patients, 1% of them near-duplicates (typo in the name, reformatted email).
+// run with mvn test -Pbenchmark -Dbenchmark.patients=5000000
+@Tag("benchmark")
+class DuplicateDetectionBenchmarkTests {
+
+    private static final String[] FIRST_NAMES = {
+            "james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda", "david", "elizabeth",
+            "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah", "charles", "karen",
+            "christopher", "lisa", "daniel", "nancy", "matthew", "betty", "anthony", "margaret", "mark", "sandra",
+            "donald", "ashley", "steven", "kimberly", "paul", "emily", "andrew", "donna", "joshua", "michelle",
+            "kenneth", "carol", "kevin", "amanda", "brian", "dorothy", "george", "melissa", "timothy", "deborah",
+            "ronald", "stephanie", "edward", "rebecca", "jason", "sharon", "jeffrey", "laura", "ryan", "cynthia",
+            "jacob", "kathleen", "gary", "amy", "nicholas", "angela", "eric", "shirley", "jonathan", "anna",
+            "stephen", "brenda", "larry", "pamela", "justin", "emma", "scott", "nicole", "brandon", "helen",
+            "benjamin", "samantha", "samuel", "katherine", "gregory", "christine", "alexander", "debra", "frank",
+            "rachel", "patrick", "carolyn", "raymond", "janet", "jack", "catherine", "dennis", "maria", "jerry"};
+
+    private static final String[] LAST_NAME_PARTS = {
+            "smith", "john", "william", "brown", "jones", "garcia", "miller", "davis", "rodrig", "martin",
+            "hernan", "lopez", "gonza", "wilson", "anders", "thomas", "taylor", "moore", "jackson", "lee",
+            "perez", "thompson", "white", "harris", "sanchez", "clark", "ramirez", "lewis", "robin", "walker",
+            "young", "allen", "king", "wright", "scott", "torres", "nguyen", "hill", "flores", "green"};
+
+    private static final String[] LAST_NAME_SUFFIXES = {"", "son", "s", "ez", "er", "ton", "ley", "man", "berg", "ford"};
+
+    private static final String[] DOMAINS = {"example.com", "mail.com", "clinic.org", "post.net"};
+
+    private record Synthetic(List<PatientFingerprint> patients, Set<UUID> duplicateIds) {
+    }
+
+    private static Synthetic generate(int count, double duplicateRate, long seed) {
+        Random random = new Random(seed);
+        List<PatientFingerprint> patients = new ArrayList<>(count);
+        Set<UUID> duplicateIds = new HashSet<>();
+        LocalDate epoch = LocalDate.of(1940, 1, 1);
+        String[] names = new String[count];
+        String[] emails = new String[count];
+        LocalDate[] dobs = new LocalDate[count];
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            if (i > 0 && random.nextDouble() < duplicateRate) {
+                int original = random.nextInt(i);
+                names[i] = typo(names[original], random);
+                emails[i] = emails[original].replace(".", "").replaceFirst("@.*", "@" + DOMAINS[random.nextInt(DOMAINS.length)]);
+                dobs[i] = dobs[original];
+                duplicateIds.add(id);
+            } else {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAME_PARTS[random.nextInt(LAST_NAME_PARTS.length)]
+                        + LAST_NAME_SUFFIXES[random.nextInt(LAST_NAME_SUFFIXES.length)];
+                names[i] = first + " " + last;
+                emails[i] = first + "." + last + random.nextInt(100_000) + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+                dobs[i] = epoch.plusDays(random.nextInt(80 * 365));
+            }
+            patients.add(BlockingKeys.fingerprint(id, names[i], emails[i], dobs[i]));
+        }
+        return new Synthetic(patients, duplicateIds);
+    }
+
+    // swap two adjacent letters after the first one, the kind of typo soundex absorbs
+    private static String typo(String name, Random random) {
+        char[] chars = name.toCharArray();
+        int i = 1 + random.nextInt(chars.length - 2);
+        if (chars[i] == ' ' || chars[i + 1] == ' ') {
+            return name;
+        }
+        char c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+        return new String(chars);
+    }
+
+    @Test
+    void blockingIndexAtScale() {
+        int count = Integer.getInteger("benchmark.patients", 1_000_000);
+        int probes = Integer.getInteger("benchmark.probes", 20_000);
+        int parallelism = Integer.getInteger("benchmark.parallelism", Runtime.getRuntime().availableProcessors());
+
+        Synthetic synthetic = generate(count, 0.01, 42);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        DuplicateScorer scorer = new DuplicateScorer(0.85, 256, pool);
+        DuplicateIndex index = new DuplicateIndex();
+
+        long start = System.nanoTime();
+        synthetic.patients().forEach(index::put);
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+
+        Random random = new Random(7);
+        long[] latencies = new long[probes];
+        for (int i = 0; i < probes; i++) {
+            PatientFingerprint patient = synthetic.patients().get(random.nextInt(count));
+            long begin = System.nanoTime();
+            scorer.match(patient, index.candidates(patient, 500));
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+
+        start = System.nanoTime();
+        List<DuplicateScorer.Match> matches = scorer.scan(index.snapshot(500));
+        double scanSeconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        Set<UUID> found = new HashSet<>();
+        matches.forEach(m -> found.add(m.patientId()));
+        long recalled = synthetic.duplicateIds().stream().filter(found::contains).count();
+        double recall = (double) recalled / synthetic.duplicateIds().size();
+
+        System.out.printf("Duplicate detection patients=%d parallelism=%d: index build %.1fs (%.0f patients/s), "
+                        + "check p50=%.0fus p99=%.0fus, full scan %.1fs, %d pairs, recall %.3f of %d injected%n",
+                count, parallelism, buildSeconds, count / buildSeconds,
+                latencies[probes / 2] / 1e3, latencies[(int) (probes * 0.99)] / 1e3,
+                scanSeconds, matches.size(), recall, synthetic.duplicateIds().size());
+
+        assertTrue(recall > 0.9);
+    }
+}
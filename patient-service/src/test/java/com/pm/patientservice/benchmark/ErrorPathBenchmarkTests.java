@@ -0,0 +1,209 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.exceptions.PatientNotFoundException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static com.pm.patientservice.PatientRequests.patientJson;
+import static com.pm.patientservice.PatientRequests.patientsUrl;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// closed-loop HTTP load against the error responses next to the happy path: lookups of
+// existing patients, a scraper cycling through a pool of unknown ids, unknown ids that are
+// never repeated, duplicate-email creates and invalid bodies. per-request service logging
+// is turned down so the numbers are about the error path, the handler's own rate-limited
+// WARN lines stay on. also times throwing a stackless domain exception against a regular
+// one from a deep call stack.
+// run with mvn test -Pbenchmark -Dtest=ErrorPathBenchmarkTests -Dbenchmark.seconds=20
+// and with -Derrors.missing-id-cache-size=0 to compare unknown ids without the cache
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.pm.patientservice.service=warn")
+@ActiveProfiles("test")
+class ErrorPathBenchmarkTests {
+
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 3);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 8);
+    private static final int UNKNOWN_ID_POOL = Integer.getInteger("benchmark.unknown-ids", 1_000);
+
+    @LocalServerPort
+    private int port;
+
+    private record Result(String name, long requests, long unexpected, double seconds, long[] sortedNanos) {
+
+        double percentileMicros(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1_000.0;
+        }
+
+        Result named(String name) {
+            return new Result(name, requests, unexpected, seconds, sortedNanos);
+        }
+
+        String summary() {
+            return String.format("%-22s %8.0f req/s  p50=%6.0fus  p99=%6.0fus  unexpected=%d", name,
+                    requests / seconds, percentileMicros(50), percentileMicros(99), unexpected);
+        }
+    }
+
+    @Test
+    void errorHeavyWorkload() throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+        HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+        String baseUrl = patientsUrl(port);
+
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            HttpRequest create = post(baseUrl, patientJson("Benchmark Patient", "bench" + i + "@example.com"));
+            HttpResponse<String> created = client.send(create, HttpResponse.BodyHandlers.ofString());
+            existing.add(created.body().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1"));
+        }
+        UUID[] unknownIds = new UUID[UNKNOWN_ID_POOL];
+        Arrays.setAll(unknownIds, i -> UUID.randomUUID());
+        HttpRequest conflict = post(baseUrl, patientJson("Benchmark Patient", "bench0@example.com"));
+        HttpRequest invalid = post(baseUrl, "{\"email\": \"not-an-email\"}");
+
+        List<Result> results = new ArrayList<>();
+        results.add(drive(client, "found", 200,
+                i -> get(baseUrl + "/" + existing.get(i % existing.size()))));
+        results.add(drive(client, "not found, repeated", 404,
+                i -> get(baseUrl + "/" + unknownIds[i % unknownIds.length])));
+        results.add(drive(client, "not found, fresh ids", 404,
+                i -> get(baseUrl + "/" + UUID.randomUUID())));
+        results.add(drive(client, "duplicate email", 409, i -> conflict));
+        results.add(drive(client, "validation error", 400, i -> invalid));
+        clientExecutor.shutdown();
+
+        System.out.printf("error path, %d clients, %ds per workload%n", CONCURRENCY, SECONDS);
+        results.forEach(result -> System.out.println(result.summary()));
+        for (Result result : results) {
+            assertEquals(0, result.unexpected(), result.name());
+        }
+    }
+
+    @Test
+    void stacklessExceptions() {
+        UUID id = UUID.randomUUID();
+        int iterations = Integer.getInteger("benchmark.exceptions", 1_000_000);
+        for (int round = 0; round < 2; round++) {
+            // first round is warmup
+            long stackful = time(iterations, () -> new RuntimeException("Patient not found with ID: " + id));
+            long stackless = time(iterations, () -> new PatientNotFoundException(id));
+            if (round == 1) {
+                System.out.printf("throw from depth 150: regular %.0f ns, stackless %.0f ns%n",
+                        (double) stackful / iterations, (double) stackless / iterations);
+                assertTrue(stackless < stackful);
+            }
+        }
+    }
+
+    private Result drive(HttpClient client, String name, int expectedStatus, IntFunction<HttpRequest> requests)
+            throws Exception {
+        run(client, expectedStatus, requests, WARMUP_SECONDS);
+        return run(client, expectedStatus, requests, SECONDS).named(name);
+    }
+
+    private Result run(HttpClient client, int expectedStatus, IntFunction<HttpRequest> requests, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < CONCURRENCY; w++) {
+            int offset = w * 7_919;
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[1 << 12];
+                int count = 0;
+                long unexpected = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = requests.apply(i);
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - begin;
+                    if (response.statusCode() != expectedStatus) {
+                        unexpected++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsed;
+                }
+                // last slot carries the unexpected count
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = unexpected;
+                return result;
+            }));
+        }
+        long unexpected = 0;
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            unexpected += latencies[latencies.length - 1];
+            perWorker.add(Arrays.copyOf(latencies, latencies.length - 1));
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        workers.shutdown();
+
+        long[] all = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result("", all.length, unexpected, elapsed, all);
+    }
+
+    private static long time(int iterations, Supplier<RuntimeException> exception) {
+        long start = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += throwFrom(150, exception);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        return elapsed;
+    }
+
+    private static int throwFrom(int depth, Supplier<RuntimeException> exception) {
+        if (depth > 0) {
+            return throwFrom(depth - 1, exception) + ThreadLocalRandom.current().nextInt(2);
+        }
+        try {
+            throw exception.get();
+        } catch (RuntimeException e) {
+            return e.getStackTrace().length;
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.model.id.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// bulk insert of patients keyed by random v4 ids against time-ordered v7 ids, same schema
+// as the patient table. reports rows/sec overall and over the last 10% of rows, and the size of the primary key
+// index afterwards. the H2 file database gets a small page cache so random inserts into
+// the key index have to go to disk, the way they do once the table outgrows memory.
+// H2 rewrites pages copy-on-write and packs them the same for either key order, so the
+// index size difference (half-empty leaves after random page splits) only shows on PostgreSQL.
+// run with mvn test -Pbenchmark -Dtest=PatientIdBenchmarkTests -Dbenchmark.rows=2000000
+// or against PostgreSQL with -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/bench
+//   -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+@Tag("benchmark")
+class PatientIdBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 50);
+    private static final int ROWS_PER_COMMIT = Integer.getInteger("benchmark.rows-per-commit", 1_000);
+    private static final String URL = System.getProperty("benchmark.jdbc-url",
+            "jdbc:h2:file:./target/benchmark/patient-ids;CACHE_SIZE=8192");
+    private static final String USER = System.getProperty("benchmark.jdbc-user", "sa");
+    private static final String PASSWORD = System.getProperty("benchmark.jdbc-password", "");
+
+    private record Result(String scheme, double rowsPerSecond, double lastWindowRowsPerSecond, long indexBytes,
+                          long tableBytes) {
+
+        String summary() {
+            return String.format("%s: %.0f rows/s overall, %.0f rows/s over the last 10%%, pk index %.1f MB, "
+                            + "table+indexes %.1f MB", scheme, rowsPerSecond, lastWindowRowsPerSecond,
+                    indexBytes / 1e6, tableBytes / 1e6);
+        }
+    }
+
+    @Test
+    void randomVersusTimeOrderedIds() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            connection.setAutoCommit(false);
+            Result random = run(connection, "bench_patient_v4", UUID::randomUUID);
+            Result timeOrdered = run(connection, "bench_patient_v7", UuidV7::next);
+
+            System.out.printf("patient ids, %d rows, batch %d, commit every %d%n", ROWS, BATCH, ROWS_PER_COMMIT);
+            System.out.println(random.summary());
+            System.out.println(timeOrdered.summary());
+            System.out.printf("v7/v4: insert throughput x%.2f, pk index size x%.2f%n",
+                    timeOrdered.rowsPerSecond() / random.rowsPerSecond(),
+                    (double) timeOrdered.indexBytes() / random.indexBytes());
+
+            // appending to the right edge of the key index beats touching a random leaf per row
+            assertTrue(timeOrdered.rowsPerSecond() >= random.rowsPerSecond());
+        }
+    }
+
+    private Result run(Connection connection, String table, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID CONSTRAINT " + table + "_pkey PRIMARY KEY, "
+                    + "name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, address VARCHAR(255) NOT NULL, "
+                    + "date_of_birth DATE NOT NULL, registered_date DATE NOT NULL)");
+            connection.commit();
+        }
+
+        Date dateOfBirth = Date.valueOf(LocalDate.of(1990, 1, 1));
+        Date registered = Date.valueOf(LocalDate.now());
+        int window = Math.max(ROWS / 10, 1);
+        long windowStart = 0;
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, name, email, address, date_of_birth, registered_date) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (i == ROWS - window) {
+                    windowStart = System.nanoTime();
+                }
+                insert.setObject(1, ids.get());
+                insert.setString(2, "Patient " + i);
+                insert.setString(3, "patient" + i + "@example.com");
+                insert.setString(4, i + " Benchmark Street");
+                insert.setDate(5, dateOfBirth);
+                insert.setDate(6, registered);
+                insert.addBatch();
+                if ((i + 1) % BATCH == 0 || i == ROWS - 1) {
+                    insert.executeBatch();
+                }
+                if ((i + 1) % ROWS_PER_COMMIT == 0 || i == ROWS - 1) {
+                    connection.commit();
+                }
+            }
+        }
+        long end = System.nanoTime();
+
+        long[] sizes = sizes(connection, table);
+        return new Result(table, ROWS / ((end - start) / 1e9), window / ((end - windowStart) / 1e9),
+                sizes[0], sizes[1]);
+    }
+
+    // {primary key index, table with all its indexes}
+    private long[] sizes(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+                connection.setAutoCommit(true);
+                statement.execute("VACUUM ANALYZE " + table);
+                connection.setAutoCommit(false);
+                try (ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), "
+                        + "pg_total_relation_size('" + table + "')")) {
+                    rs.next();
+                    return new long[]{rs.getLong(1), rs.getLong(2)};
+                }
+            }
+            // sizes count pages written to the file, not the ones still only in the cache
+            statement.execute("CHECKPOINT SYNC");
+            String schema = connection.getSchema();
+            try (ResultSet rs = statement.executeQuery("SELECT DB_OBJECT_SIZE('INDEX', '" + schema + "', INDEX_NAME), "
+                    + "DB_OBJECT_TOTAL_SIZE('TABLE', '" + schema + "', TABLE_NAME) FROM INFORMATION_SCHEMA.INDEXES "
+                    + "WHERE TABLE_NAME = '" + table.toUpperCase() + "' AND INDEX_TYPE_NAME = 'PRIMARY KEY'")) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.pm.patientservice.dedupe;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectionTests {
+
+    private ForkJoinPool pool;
+    private DuplicateScorer scorer;
+    private DuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        scorer = new DuplicateScorer(0.85, 2, pool);
+        index = new DuplicateIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static PatientFingerprint patient(String name, String email, String dateOfBirth) {
+        return BlockingKeys.fingerprint(UUID.randomUUID(), name, email, LocalDate.parse(dateOfBirth));
+    }
+
+    @Test
+    void testSoundex() {
+        assertEquals("R163", BlockingKeys.soundex("robert"));
+        assertEquals("R163", BlockingKeys.soundex("rupert"));
+        assertEquals("A261", BlockingKeys.soundex("ashcraft"));
+        assertEquals("T522", BlockingKeys.soundex("tymczak"));
+        assertEquals("P236", BlockingKeys.soundex("pfister"));
+    }
+
+    @Test
+    void testNormalizeEmailLocal() {
+        assertEquals("johndoe", BlockingKeys.normalizeEmailLocal("John.Doe+clinic@example.com"));
+        assertEquals("johndoe", BlockingKeys.normalizeEmailLocal("john_doe@other.org"));
+    }
+
+    @Test
+    void testNormalizeNameKeepsAccentedAndNonLatinLetters() {
+        assertEquals("jose muller", BlockingKeys.normalizeName("José Müller"));
+        assertEquals(BlockingKeys.nameKey("jose muller"),
+                BlockingKeys.nameKey(BlockingKeys.normalizeName("JOSÉ MÜLLER")));
+        assertEquals("王小明", BlockingKeys.normalizeName("王小明"));
+        assertEquals("S530王小明", BlockingKeys.nameKey("smith 王小明"));
+        assertEquals("N:аннаиванова", BlockingKeys.fingerprint(null, "Анна Иванова", "anna@example.com",
+                LocalDate.parse("1980-01-01")).keys()[BlockingKeys.NAME]);
+    }
+
+    @Test
+    void testSimilarityMetrics() {
+        assertEquals(0.961, StringSimilarity.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(1.0, StringSimilarity.jaroWinkler("john", "john"));
+        assertEquals(1.0 - 3.0 / 7.0, StringSimilarity.levenshtein("kitten", "sitting"), 1e-9);
+    }
+
+    @Test
+    void testFindsMisspelledDuplicate() {
+        PatientFingerprint original = patient("John Doe", "john.doe@example.com", "1985-06-15");
+        index.put(original);
+        index.put(patient("Jane Smith", "jane.smith@example.com", "1990-09-23"));
+
+        PatientFingerprint probe = BlockingKeys.fingerprint(null, "Jon Doe", "johndoe+new@gmail.com",
+                LocalDate.parse("1985-06-15"));
+        List<DuplicateScorer.Match> matches = scorer.match(probe, index.candidates(probe, 500));
+
+        assertEquals(1, matches.size());
+        assertEquals(original.id(), matches.get(0).patientId());
+    }
+
+    @Test
+    void testDifferentPeopleWithSameNameAreNotDuplicates() {
+        index.put(patient("John Doe", "john.doe@example.com", "1985-06-15"));
+        PatientFingerprint probe = BlockingKeys.fingerprint(null, "John Doe", "jdoe.work@corp.com",
+                LocalDate.parse("1972-01-30"));
+
+        assertTrue(scorer.match(probe, index.candidates(probe, 500)).isEmpty());
+    }
+
+    @Test
+    void testScanReportsEachPairOnce() {
+        PatientFingerprint a = patient("John Doe", "john.doe@example.com", "1985-06-15");
+        PatientFingerprint b = patient("Jon Doe", "johndoe@example.com", "1985-06-15");
+        index.put(a);
+        index.put(b);
+        index.put(patient("Jane Smith", "jane.smith@example.com", "1990-09-23"));
+
+        List<DuplicateScorer.Match> matches = scorer.scan(index.snapshot(500));
+
+        // a and b share name, email and dob blocks but are reported once
+        assertEquals(1, matches.size());
+        assertEquals(b.id(), matches.get(0).patientId());
+        assertEquals(a.id(), matches.get(0).duplicateOfId());
+    }
+
+    @Test
+    void testRemovedPatientIsNoLongerACandidate() {
+        PatientFingerprint original = patient("John Doe", "john.doe@example.com", "1985-06-15");
+        index.put(original);
+        index.remove(original.id());
+
+        PatientFingerprint probe = patient("John Doe", "john.doe@example.com", "1985-06-15");
+        assertTrue(index.candidates(probe, 500).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.pm.patientservice.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// each store stands in for one instance: separate memory, one shared table
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcIdempotencyStoreTests {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcIdempotencyStore instance() {
+        return new JdbcIdempotencyStore(new InMemoryIdempotencyStore(100, CLOCK), repository, dataSource, CLOCK);
+    }
+
+    private static Instant inOneMinute() {
+        return CLOCK.instant().plus(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testOnlyOneInstanceClaimsAKey() {
+        JdbcIdempotencyStore first = instance();
+        JdbcIdempotencyStore second = instance();
+
+        assertTrue(first.claim("POST /patients claim-once", "fp", inOneMinute()));
+        assertFalse(second.claim("POST /patients claim-once", "fp", inOneMinute()));
+        assertTrue(second.get("POST /patients claim-once").isEmpty());
+    }
+
+    @Test
+    void testCompletedResponseIsVisibleToOtherInstancesWithHeaders() {
+        JdbcIdempotencyStore first = instance();
+        JdbcIdempotencyStore second = instance();
+        Map<String, List<String>> headers = Map.of("Location", List.of("/patients/1"),
+                "Possible-Duplicates", List.of("a", "b"));
+
+        assertTrue(first.claim("POST /patients completed", "fp", inOneMinute()));
+        first.put("POST /patients completed", new StoredResponse("fp", 201, "application/json", headers,
+                "{}".getBytes(), CLOCK.instant().plus(Duration.ofHours(1))));
+
+        Optional<StoredResponse> stored = second.get("POST /patients completed");
+        assertTrue(stored.isPresent());
+        assertEquals(201, stored.get().status());
+        assertEquals(headers, stored.get().headers());
+        assertFalse(second.claim("POST /patients completed", "fp", inOneMinute()));
+    }
+
+    @Test
+    void testReleasedOrAbandonedClaimCanBeTakenOver() {
+        JdbcIdempotencyStore first = instance();
+        JdbcIdempotencyStore second = instance();
+
+        assertTrue(first.claim("POST /patients released", "fp", inOneMinute()));
+        first.release("POST /patients released");
+        assertTrue(second.claim("POST /patients released", "fp", inOneMinute()));
+
+        assertTrue(first.claim("POST /patients abandoned", "fp", CLOCK.instant().minusSeconds(1)));
+        assertTrue(second.claim("POST /patients abandoned", "fp", inOneMinute()));
+    }
+
+    @Test
+    void testExpiredCompletedResponseCanBeReplacedBeforeItIsPurged() {
+        JdbcIdempotencyStore first = instance();
+        JdbcIdempotencyStore second = instance();
+
+        assertTrue(first.claim("POST /patients expired", "fp", inOneMinute()));
+        first.put("POST /patients expired", new StoredResponse("fp", 201, "application/json", Map.of(),
+                "{}".getBytes(), CLOCK.instant().minusSeconds(1)));
+
+        assertTrue(second.get("POST /patients expired").isEmpty());
+        assertTrue(second.claim("POST /patients expired", "fp2", inOneMinute()));
+        assertTrue(repository.findById("POST /patients expired").orElseThrow().isPending());
+    }
+}
@@ -0,0 +1,81 @@
+package com.pm.patientservice.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Tests {
+
+    @Test
+    void testHasVersionSevenVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.isTimeOrdered(id));
+        assertTrue(UuidV7.timestampOf(id) >= before);
+        assertTrue(UuidV7.timestampOf(id) <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void testIdsIncreaseWithinAndAcrossMilliseconds() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.next();
+            // the string form is what PostgreSQL and H2 order uuid columns by
+            assertTrue(next.toString().compareTo(previous.toString()) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testClockGoingBackDoesNotReorderIds() {
+        UUID first = UuidV7.next();
+        UUID second = UuidV7.next(UuidV7.timestampOf(first) - 10_000);
+
+        assertTrue(second.toString().compareTo(first.toString()) > 0);
+    }
+
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(UuidV7.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(160_000, ids.size());
+    }
+
+    @Test
+    void testRandomIdsAreNotTimeOrdered() {
+        UUID v4 = UUID.randomUUID();
+
+        assertFalse(UuidV7.isTimeOrdered(v4));
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampOf(v4));
+    }
+}
@@ -0,0 +1,70 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.exceptions.ErrorPathProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MissingIdCacheTests {
+
+    private static MissingIdCache cache(int size, Duration ttl) {
+        ErrorPathProperties properties = new ErrorPathProperties();
+        properties.setMissingIdCacheSize(size);
+        properties.setMissingIdTtl(ttl);
+        return new MissingIdCache(properties);
+    }
+
+    @Test
+    void testRemembersMissingIdsUntilPresent() {
+        MissingIdCache cache = cache(1024, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+
+        assertFalse(cache.isMissing(id));
+        cache.markMissing(id);
+        assertTrue(cache.isMissing(id));
+        assertFalse(cache.isMissing(UUID.randomUUID()));
+
+        cache.markPresent(id);
+        assertFalse(cache.isMissing(id));
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        MissingIdCache cache = cache(1024, Duration.ofMillis(20));
+        UUID id = UUID.randomUUID();
+
+        cache.markMissing(id);
+        Thread.sleep(40);
+
+        assertFalse(cache.isMissing(id));
+    }
+
+    @Test
+    void testNewerMissReplacesOlderOneInTheSameSlot() {
+        MissingIdCache cache = cache(1, Duration.ofMinutes(1));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        cache.markMissing(first);
+        cache.markMissing(second);
+        // clearing an id that was already replaced leaves the newer entry alone
+        cache.markPresent(first);
+
+        assertFalse(cache.isMissing(first));
+        assertTrue(cache.isMissing(second));
+    }
+
+    @Test
+    void testSizeZeroDisablesTheCache() {
+        MissingIdCache cache = cache(0, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+
+        cache.markMissing(id);
+
+        assertFalse(cache.isMissing(id));
+    }
+}